@@ -1,11 +1,13 @@
 package app.abstract_automaton_project.controllers;
 
 import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.EquivalenceResult;
 import app.abstract_automaton_project.machines.Machine;
 import app.abstract_automaton_project.machines.MealyMachine;
 import app.abstract_automaton_project.machines.MoorMachine;
 import app.abstract_automaton_project.tables.OutputMealyModel;
 import app.abstract_automaton_project.tables.TransitionModel;
+import app.abstract_automaton_project.utils.VisualTransformer;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ListChangeListener;
@@ -26,6 +28,8 @@ public class DesignerController {
 
     private Machine machine;
 
+    private Machine previousMachine;
+
     private SimulatorController simulatorController;
 
     public void setSimulatorController(SimulatorController simulatorController) {
@@ -33,7 +37,9 @@ public class DesignerController {
     }
 
     public void recompileMachineProcessEvent() {
-        simulatorController.setMachine(machine);
+        simulatorController.setMachine(pruneUnreachableBox.isSelected()
+                ? machine.withoutUnreachableStates()
+                : machine);
     }
 
     @FXML
@@ -240,6 +246,29 @@ public class DesignerController {
         changeSuccessIndicator(false);
     }
 
+    @FXML
+    private void convertAutomaton() {
+        if (machine == null) {
+            showErrorMessage("Сначала проверьте корректность автомата!");
+            return;
+        }
+
+        try {
+            setMachineProcess((machine instanceof MealyMachine mealyMachine)
+                    ? mealyMachine.toMoore()
+                    : ((MoorMachine) machine).toMealy());
+        } catch (WrongMachineParams ex) {
+            showErrorMessage(ex.getMessage());
+        }
+    }
+
+    @FXML
+    private void onPruneUnreachableChanged() {
+        if (machine != null) {
+            recompileMachineProcessEvent();
+        }
+    }
+
     @FXML
     public void refreshAll() {
         statesListView.getItems().clear();
@@ -252,6 +281,7 @@ public class DesignerController {
         outputsField.setText("");
 
         initialStateCombo.getItems().clear();
+        previousMachine = null;
         changeSuccessIndicator(false);
     }
 
@@ -303,13 +333,33 @@ public class DesignerController {
             }
 
             changeSuccessIndicator(true);
-            showSuccessMessage("Введенные параметры корректны.\nСистема готова к моделированию.");
+            String structure = VisualTransformer.getStructureSummary(machine.analyzeStructure());
+            showSuccessMessage("Введенные параметры корректны.\nСистема готова к моделированию." +
+                    (structure.isEmpty() ? "" : "\nОбнаружено: " + structure + ".") +
+                    getEquivalenceMessage(previousMachine, machine));
+            previousMachine = machine;
             recompileMachineProcessEvent();
         } catch (WrongMachineParams ex) {
             showErrorMessage(ex.getMessage());
         }
     }
 
+    private static String getEquivalenceMessage(Machine previous, Machine current) {
+        EquivalenceResult result;
+        if (previous instanceof MealyMachine previousMealy && current instanceof MealyMachine currentMealy) {
+            result = previousMealy.checkEquivalence(currentMealy);
+        } else if (previous instanceof MoorMachine previousMoor && current instanceof MoorMachine currentMoor) {
+            result = previousMoor.checkEquivalence(currentMoor);
+        } else {
+            return "";
+        }
+
+        if (result.equivalent()) {
+            return "\nПоведение совпадает с предыдущей версией.";
+        }
+        return "\nПоведение отличается от предыдущей версии на входе " + result.counterexample() + ".";
+    }
+
     private void updateOutputsTable() {
         List<OutputMealyModel> outputMealyData = updateOutputsData();
         outputTable.getItems().clear();
@@ -619,6 +669,9 @@ public class DesignerController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private CheckBox pruneUnreachableBox;
+
     private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z0-9_,]*");
     private static final Pattern MOOR_OUTPUT_PATTERN = Pattern.compile("[a-zA-Z0-9_,-]*");
     private static final Pattern TABLE_CELL_PATTERN = Pattern.compile("[a-zA-Z0-9_-]*");
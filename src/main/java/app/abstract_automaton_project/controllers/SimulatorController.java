@@ -1,11 +1,20 @@
 package app.abstract_automaton_project.controllers;
 
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.Alphabet;
 import app.abstract_automaton_project.machines.Machine;
 import app.abstract_automaton_project.machines.MealyMachine;
 import app.abstract_automaton_project.machines.MoorMachine;
+import app.abstract_automaton_project.processes.Breakpoints;
+import app.abstract_automaton_project.processes.ExpressionResult;
+import app.abstract_automaton_project.processes.HistoryPolicy;
+import app.abstract_automaton_project.processes.InputExpression;
 import app.abstract_automaton_project.processes.MachineProcessInterface;
 import app.abstract_automaton_project.processes.MealyProcess;
 import app.abstract_automaton_project.processes.MoorProcess;
+import app.abstract_automaton_project.processes.RunResult;
+import app.abstract_automaton_project.processes.RunStatus;
+import app.abstract_automaton_project.processes.TraceIndex;
 import app.abstract_automaton_project.utils.MachineFileTransformer;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
@@ -26,10 +35,16 @@ public class SimulatorController {
 
     private MachineProcessInterface machineProcess;
 
+    private long searchTact;
+
     @FXML
     public void initialize() {
         clearResultsTable();
 
+        searchKindBox.getItems().addAll(SEARCH_KINDS);
+        searchKindBox.getSelectionModel().selectFirst();
+        resultsTable.getSelectionModel().setCellSelectionEnabled(true);
+
         inputSequenceField.setTextFormatter(new TextFormatter<>((TextFormatter.Change change) -> {
             String newText = change.getControlNewText();
             if (INPUTS_PATTERN.matcher(newText).matches()) {
@@ -42,15 +57,17 @@ public class SimulatorController {
 
     public void setMachine(Machine newMachine) {
         if (newMachine instanceof MealyMachine mealyMachine) {
-            machineProcess = new MealyProcess(mealyMachine);
+            machineProcess = new MealyProcess(mealyMachine, HistoryPolicy.last(HISTORY_TACTS));
 
             automatonTypeLabel.setText("Автомат Мили");
         } else {
             MoorMachine moorMachine = (MoorMachine) newMachine;
-            machineProcess = new MoorProcess(moorMachine);
+            machineProcess = new MoorProcess(moorMachine, HistoryPolicy.last(HISTORY_TACTS));
 
             automatonTypeLabel.setText("Автомат Мура");
         }
+        machineProcess.enableStatistics();
+        machineProcess.enableTraceIndex();
 
         clearResults();
     }
@@ -66,6 +83,17 @@ public class SimulatorController {
                 .showError();
     }
 
+    public void showInfoMessage(String message) {
+        Notifications.create()
+                .title("Остановка")
+                .text(message)
+                .hideAfter(Duration.seconds(5))
+                .owner(rootPane.getScene().getWindow())
+                .position(Pos.TOP_RIGHT)
+                .darkStyle()
+                .showInformation();
+    }
+
     private void clearResultsTable() {
         if (machineProcess == null) {
             return;
@@ -83,7 +111,8 @@ public class SimulatorController {
         namingColumn.setStyle("-fx-alignment: CENTER;");
         resultsTable.getColumns().add(namingColumn);
 
-        resultsTable.getColumns().add(getResultColumn(machineProcess.getTactNumber()));
+        long tact = machineProcess.getTactNumber();
+        resultsTable.getColumns().add(getResultColumn(String.valueOf(tact), (int) tact));
 
         List<String> inputs = new ArrayList<>(List.of("Вход"));
         List<String> states = new ArrayList<>(List.of("Состояние"));
@@ -97,25 +126,56 @@ public class SimulatorController {
     }
 
     private void addResultColumn() {
-        int tact = machineProcess.getTactNumber();
+        long tact = machineProcess.getTactNumber();
         stepLabel.setText(String.valueOf(tact));
         currentStateLabel.setText(machineProcess.getLastConditionFromHistory());
-        resultsTable.getColumns().add(getResultColumn(tact));
+        resultsTable.getColumns().add(getResultColumn(String.valueOf(tact), resultsTable.getColumns().size()));
 
         resultsTable.getItems().get(0).add(machineProcess.getLastInput());
         resultsTable.getItems().get(1).add(machineProcess.getLastConditionFromHistory());
         resultsTable.getItems().get(2).add(machineProcess.getLastResult());
 
         successStepsLabel.setText(String.valueOf(
-                Integer.parseInt(successStepsLabel.getText()) + 1
+                Long.parseLong(successStepsLabel.getText()) + 1
         ));
     }
 
-    private TableColumn<List<String>, String> getResultColumn(int tact) {
-        TableColumn<List<String>, String> tactColumn = new TableColumn<>(String.valueOf(tact));
+    /**
+     * Добавляет столбцы последних тактов; история процесса хранит только
+     * последние такты, поэтому индексы считаются от ее конца.
+     */
+    private void addResultColumns(long count) {
+        if (count == 0) {
+            return;
+        }
+
+        long lastTact = machineProcess.getTactNumber();
+        List<String> inputs = machineProcess.getInputsHistory();
+        List<String> conditions = machineProcess.getAllConditionsFromHistory();
+        List<String> results = machineProcess.getAllResults();
+
+        long shown = Math.min(count, Math.min(MAX_ADDED_COLUMNS, inputs.size()));
+        for (long tact = lastTact - shown + 1; tact <= lastTact; tact++) {
+            int fromEnd = (int) (lastTact - tact);
+            resultsTable.getColumns().add(getResultColumn(String.valueOf(tact), resultsTable.getColumns().size()));
+
+            resultsTable.getItems().get(0).add(inputs.get(inputs.size() - 1 - fromEnd));
+            resultsTable.getItems().get(1).add(conditions.get(conditions.size() - 1 - fromEnd));
+            resultsTable.getItems().get(2).add(results.get(results.size() - 1 - fromEnd));
+        }
+
+        stepLabel.setText(String.valueOf(lastTact));
+        currentStateLabel.setText(machineProcess.getLastConditionFromHistory());
+        successStepsLabel.setText(String.valueOf(
+                Long.parseLong(successStepsLabel.getText()) + count
+        ));
+    }
+
+    private TableColumn<List<String>, String> getResultColumn(String title, int index) {
+        TableColumn<List<String>, String> tactColumn = new TableColumn<>(title);
         tactColumn.setCellValueFactory(
                 param ->new SimpleStringProperty(
-                        (param.getValue().size() <= tact) ? ("") : (param.getValue().get(tact))));
+                        (param.getValue().size() <= index) ? ("") : (param.getValue().get(index))));
         tactColumn.setSortable(false);
         tactColumn.setResizable(true);
         tactColumn.setPrefWidth(100);
@@ -134,30 +194,181 @@ public class SimulatorController {
         int firstInputBound = inputs.indexOf(',');
         if (firstInputBound == -1) firstInputBound = inputs.length();
 
+        if (machineProcess.tryStep(inputs.substring(0, firstInputBound)) != RunStatus.COMPLETED) {
+            showStepError();
+            return false;
+        }
+
+        inputSequenceField.setText(
+                (firstInputBound != inputs.length()) ? inputs.substring(firstInputBound + 1) : "");
+        addResultColumn();
+
+        return true;
+    }
+
+    @FXML
+    private void run() {
+        String inputs = inputSequenceField.getText();
+        if (inputs.isEmpty()) {
+            return;
+        }
+
+        Breakpoints breakpoints;
         try {
-            machineProcess.step(inputs.substring(0, firstInputBound));
-            inputSequenceField.setText(
-                    (firstInputBound != inputs.length()) ? inputs.substring(firstInputBound + 1) : "");
+            breakpoints = Breakpoints.parse(machineProcess.getMachine().getCompiledMachine(),
+                    breakpointsField.getText());
+        } catch (WrongMachineParams ex) {
+            showErrorMessage(ex.getMessage());
+            return;
+        }
+
+        if (InputExpression.isCompressed(inputs)) {
+            if (!breakpoints.isEmpty()) {
+                showErrorMessage(
+                        """
+                        Точки останова не поддерживаются для сжатой входной последовательности.
+                        Очистите поле точек останова или запишите вход без повторений.
+                        """
+                );
+                return;
+            }
+
+            runExpression(inputs);
+            return;
+        }
+
+        List<String> symbols = List.of(inputs.split(","));
+        RunResult result = machineProcess.runUntil(symbols, breakpoints);
+        addResultColumns(result.getProcessedCount());
+
+        if (result.status() == RunStatus.BREAKPOINT) {
+            inputSequenceField.setText(String.join(",",
+                    symbols.subList(result.failedIndex(), symbols.size())));
+            showInfoMessage(String.format("Сработала точка останова на такте %d",
+                    machineProcess.getTactNumber()));
+        } else if (!result.isCompleted()) {
+            inputSequenceField.setText(String.join(",",
+                    symbols.subList(result.failedIndex(), symbols.size())));
+            showStepError();
+        } else {
+            inputSequenceField.setText("");
+        }
+    }
 
-            addResultColumn();
-        } catch (Exception ex) {
+    private void runExpression(String inputs) {
+        InputExpression expression;
+        ExpressionResult result;
+        try {
+            expression = InputExpression.parse(inputs);
+            result = machineProcess.runExpression(expression);
+        } catch (WrongMachineParams ex) {
             errorStepsLabel.setText(String.valueOf(
                     Integer.parseInt(errorStepsLabel.getText()) + 1
             ));
             showErrorMessage(ex.getMessage());
-            return false;
+            return;
         }
 
-        return true;
+        addResultColumns(result.processedCount());
+
+        if (!result.isCompleted()) {
+            inputSequenceField.setText(expression.suffix(result.failedTact()));
+            showStepError();
+        } else {
+            inputSequenceField.setText("");
+        }
+    }
+
+    /**
+     * Ошибка последнего шага или прогона: процесс уже сообщил о ней
+     * наблюдателям, остается показать ее пользователю.
+     */
+    private void showStepError() {
+        errorStepsLabel.setText(String.valueOf(
+                Integer.parseInt(errorStepsLabel.getText()) + 1
+        ));
+        showErrorMessage(machineProcess.getLastErrorMessage());
     }
 
     @FXML
-    private void run() {
-        while (true) {
-            if (!nextStep()) {
-                break;
+    private void findNext() {
+        find(true);
+    }
+
+    @FXML
+    private void findPrevious() {
+        find(false);
+    }
+
+    /**
+     * Переходит к следующему (предыдущему) такту, где встретился символ,
+     * начиная от последнего найденного такта.
+     */
+    private void find(boolean forward) {
+        TraceIndex traceIndex = machineProcess.getTraceIndex();
+        int kindIndex = searchKindBox.getSelectionModel().getSelectedIndex();
+        TraceIndex.Kind kind = TraceIndex.Kind.values()[kindIndex];
+        String symbol = searchSymbolField.getText().trim();
+
+        int symbolId = traceIndex.getSymbolId(kind, symbol);
+        if (symbolId == Alphabet.UNKNOWN) {
+            showErrorMessage(String.format(
+                    """
+                    Символ "%s" отсутствует в алфавите.
+                    Известные символы:
+                    %s
+                    """,
+                    symbol, traceIndex.getAlphabet(kind)
+            ));
+            return;
+        }
+
+        long tact = forward
+                ? traceIndex.next(kind, symbolId, searchTact + 1)
+                : traceIndex.previous(kind, symbolId, searchTact - 1);
+        if (tact == -1) {
+            searchResultLabel.setText("Не найдено");
+            return;
+        }
+        searchTact = tact;
+
+        long lastTact = machineProcess.getTactNumber() - 1;
+        String count = String.format("Такт %d, всего вхождений: %d", tact + 1,
+                traceIndex.count(kind, symbolId, 0, lastTact));
+
+        TableColumn<List<String>, ?> column = findResultColumn(tact + 1);
+        if (column == null) {
+            searchResultLabel.setText(count + " (нет в таблице)");
+            return;
+        }
+
+        int row = switch (kind) {
+            case INPUT -> 0;
+            case STATE -> 1;
+            case OUTPUT -> 2;
+        };
+        resultsTable.scrollToColumn(column);
+        resultsTable.getSelectionModel().clearAndSelect(row, column);
+        searchResultLabel.setText(count);
+    }
+
+    private TableColumn<List<String>, ?> findResultColumn(long tact) {
+        List<TableColumn<List<String>, ?>> columns = resultsTable.getColumns();
+        int low = 1;
+        int high = columns.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long columnTact = Long.parseLong(columns.get(middle).getText());
+            if (columnTact == tact) {
+                return columns.get(middle);
+            } else if (columnTact < tact) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
             }
         }
+
+        return null;
     }
 
     @FXML
@@ -197,6 +408,8 @@ public class SimulatorController {
         stepLabel.setText("1");
         successStepsLabel.setText("0");
         errorStepsLabel.setText("0");
+        searchResultLabel.setText("");
+        searchTact = -1;
 
         clearResultsTable();
     }
@@ -228,5 +441,27 @@ public class SimulatorController {
     @FXML
     private TextField inputSequenceField;
 
-    private static final Pattern INPUTS_PATTERN = Pattern.compile("[a-zA-Z0-9_,]*");
+    @FXML
+    private TextField breakpointsField;
+
+    @FXML
+    private ChoiceBox<String> searchKindBox;
+
+    @FXML
+    private TextField searchSymbolField;
+
+    @FXML
+    private Label searchResultLabel;
+
+    private static final Pattern INPUTS_PATTERN = Pattern.compile("[a-zA-Z0-9_,()^]*");
+
+    private static final int MAX_ADDED_COLUMNS = 1000;
+
+    /**
+     * Сколько последних тактов хранит процесс: более ранние такты длинных
+     * прогонов не моделируются пошагово.
+     */
+    private static final int HISTORY_TACTS = 1 << 20;
+
+    private static final List<String> SEARCH_KINDS = List.of("Состояние", "Вход", "Выход");
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package app.abstract_automaton_project.exceptions;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.util.function.Supplier;
+
+/**
+ * Ошибка шага процесса. Не заполняет стек вызовов, а текст сообщения
+ * формируется только при первом чтении (и перед сериализацией, так как
+ * источник текста не сериализуется).
+ */
+public class StepException extends WrongMachineParams {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private transient Supplier<String> messageSupplier;
+
+    private String message;
+
+    public StepException(Supplier<String> messageSupplier) {
+        super(null, false);
+        this.messageSupplier = messageSupplier;
+    }
+
+    @Override
+    public String getMessage() {
+        if (messageSupplier != null) {
+            message = messageSupplier.get();
+            messageSupplier = null;
+        }
+
+        return message;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
+    }
+}
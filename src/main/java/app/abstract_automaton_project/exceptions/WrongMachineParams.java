@@ -5,4 +5,8 @@ public class WrongMachineParams extends RuntimeException {
     public WrongMachineParams(String message) {
         super(message);
     }
-}
\ No newline at end of file
+
+    protected WrongMachineParams(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+}
@@ -0,0 +1,56 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.*;
+
+/**
+ * Таблица символов: отображение имя → номер (хеш) и номер → имя (массив).
+ * При повторяющихся именах номером символа считается первое вхождение,
+ * как у {@link List#indexOf(Object)}.
+ */
+public final class Alphabet {
+
+    public static final int UNKNOWN = -1;
+
+    private final String[] symbols;
+
+    private final Map<String, Integer> ids;
+
+    public Alphabet(List<String> symbols) {
+        this.symbols = symbols.toArray(String[]::new);
+        this.ids = HashMap.newHashMap(this.symbols.length);
+
+        for (int i = 0; i < this.symbols.length; i++) {
+            ids.putIfAbsent(this.symbols[i], i);
+        }
+    }
+
+    public static Alphabet distinct(Collection<String> symbols) {
+        return new Alphabet(new ArrayList<>(new LinkedHashSet<>(symbols)));
+    }
+
+    public int getId(String symbol) {
+        Integer id = ids.get(symbol);
+        return (id == null) ? UNKNOWN : id;
+    }
+
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+
+    public boolean contains(String symbol) {
+        return ids.containsKey(symbol);
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public List<String> getSymbols() {
+        return Collections.unmodifiableList(Arrays.asList(symbols));
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(symbols);
+    }
+}
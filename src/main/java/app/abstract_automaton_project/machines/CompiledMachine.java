@@ -0,0 +1,422 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.List;
+
+/**
+ * Компактное представление автомата с плотной целочисленной нумерацией
+ * состояний, входных и выходных сигналов.
+ * <p>
+ * Таблицы переходов и выходов хранятся в плоских массивах по индексу
+ * {@code state * inputsCount + input}. Отсутствующий переход ("-") кодируется
+ * значением {@link #UNDEFINED}. Для автомата Мура выход состояния
+ * продублирован для всех входов, поэтому обе модели шагают одинаково.
+ * <p>
+ * Для автоматов средних размеров дополнительно строится упакованная
+ * таблица, где следующее состояние и выход лежат в одном {@code int}, и
+ * пакетный прогон делает одно чтение памяти на такт. Малые автоматы
+ * прогоняются по обычным таблицам: они и так помещаются в кэш, и по замерам
+ * ({@code CompiledMachineBenchmark}) распаковка там обходится дороже
+ * второго чтения. Слишком большие автоматы в упаковку не помещаются.
+ * <p>
+ * Если помещается в кэш первого уровня, строится и таблица шага по k входам
+ * сразу (k от 2 до 4): по состоянию и блоку из k входов она дает состояние
+ * после блока и выходы каждого из k тактов. Ею пользуется пакетный прогон,
+ * когда состояния по тактам не нужны. Таблица крупнее кэша по замерам
+ * медленнее пошагового прогона, поэтому для остальных автоматов она не
+ * строится.
+ */
+public final class CompiledMachine {
+
+    public static final int UNDEFINED = Alphabet.UNKNOWN;
+
+    private static final int PACKED_TABLE_MIN = 1 << 13;
+
+    private static final int PACKED_TABLE_LIMIT = 1 << 20;
+
+    private static final int PACKED_STATE_BITS = 16;
+
+    private static final int PACKED_STATE_MASK = (1 << PACKED_STATE_BITS) - 1;
+
+    private static final int STRIDE_TABLE_BUDGET = 1 << 12;
+
+    private static final int MAX_STRIDE = 4;
+
+    private static final int MAX_STRIDE_KEY_BITS = 24;
+
+    private final Alphabet conditions;
+
+    private final Alphabet transitions;
+
+    private final Alphabet results;
+
+    private final int inputsCount;
+
+    private final int startState;
+
+    private final int[] transitionTable;
+
+    private final int[] outputTable;
+
+    private final int[] packedTable;
+
+    private final int stride;
+
+    private final int strideKeyBits;
+
+    private final int[] strideTable;
+
+    private CompiledMachine(Alphabet conditions, Alphabet transitions, Alphabet results,
+                            int startState, int[] transitionTable, int[] outputTable) {
+        this.conditions = conditions;
+        this.transitions = transitions;
+        this.results = results;
+        this.inputsCount = transitions.size();
+        this.startState = startState;
+        this.transitionTable = transitionTable;
+        this.outputTable = outputTable;
+        this.packedTable = packTables(conditions.size(), results.size(), transitionTable, outputTable);
+
+        int inputBits = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(0, inputsCount - 1));
+        int stride = 1;
+        for (int k = MAX_STRIDE; k > 1 && inputsCount > 0; k--) {
+            long cells = (long) conditions.size() << (inputBits * k);
+            if (inputBits * k <= MAX_STRIDE_KEY_BITS && cells * (k + 1) <= STRIDE_TABLE_BUDGET) {
+                stride = k;
+                break;
+            }
+        }
+        this.stride = stride;
+        this.strideKeyBits = inputBits;
+        this.strideTable = (stride > 1) ? buildStrideTable() : null;
+    }
+
+    /**
+     * Для каждой ячейки {@code state << (inputBits * k) | блок входов} хранится
+     * {@code k + 1} чисел: состояние после блока (или {@link #UNDEFINED}, если
+     * блок нельзя пройти целиком) и выходы k тактов.
+     */
+    private int[] buildStrideTable() {
+        int keyBits = strideKeyBits * stride;
+        int inputMask = (1 << strideKeyBits) - 1;
+        int cellSize = stride + 1;
+        int[] table = new int[(getStatesCount() << keyBits) * cellSize];
+
+        for (int start = 0; start < getStatesCount(); start++) {
+            for (int key = 0; key < (1 << keyBits); key++) {
+                int offset = ((start << keyBits) | key) * cellSize;
+                int state = start;
+
+                for (int j = 0; j < stride && state != UNDEFINED; j++) {
+                    int input = (key >>> (strideKeyBits * (stride - 1 - j))) & inputMask;
+                    if (input >= inputsCount) {
+                        state = UNDEFINED;
+                        break;
+                    }
+
+                    int cell = state * inputsCount + input;
+                    table[offset + 1 + j] = outputTable[cell];
+                    state = transitionTable[cell];
+                }
+                table[offset] = state;
+            }
+        }
+
+        return table;
+    }
+
+    private static int[] packTables(int statesCount, int outputsCount, int[] transitionTable, int[] outputTable) {
+        if (transitionTable.length < PACKED_TABLE_MIN
+                || transitionTable.length > PACKED_TABLE_LIMIT
+                || statesCount > PACKED_STATE_MASK + 1
+                || outputsCount > (1 << (Integer.SIZE - 1 - PACKED_STATE_BITS))) {
+            return null;
+        }
+
+        int[] packedTable = new int[transitionTable.length];
+        for (int i = 0; i < packedTable.length; i++) {
+            packedTable[i] = (transitionTable[i] == UNDEFINED)
+                    ? UNDEFINED
+                    : transitionTable[i] | (outputTable[i] << PACKED_STATE_BITS);
+        }
+
+        return packedTable;
+    }
+
+    static CompiledMachine compile(MealyMachine machine) {
+        Alphabet conditions = machine.getConditionsAlphabet();
+        Alphabet transitions = machine.getTransitionsAlphabet();
+        Alphabet results = machine.getResultsAlphabet();
+
+        int statesCount = conditions.size();
+        int inputsCount = transitions.size();
+        int[] transitionTable = new int[statesCount * inputsCount];
+        int[] outputTable = new int[statesCount * inputsCount];
+
+        for (int input = 0; input < inputsCount; input++) {
+            List<String> conditionsRow = machine.getConditionsMatrix().get(input);
+            List<String> resultsRow = machine.getResultsMatrix().get(input);
+
+            for (int state = 0; state < statesCount; state++) {
+                int index = state * inputsCount + input;
+                transitionTable[index] = conditions.getId(conditionsRow.get(state));
+                outputTable[index] = results.getId(resultsRow.get(state));
+            }
+        }
+
+        return new CompiledMachine(conditions, transitions, results,
+                conditions.getId(machine.getStartCondition()),
+                transitionTable, outputTable);
+    }
+
+    static CompiledMachine compile(MoorMachine machine) {
+        Alphabet conditions = machine.getConditionsAlphabet();
+        Alphabet transitions = machine.getTransitionsAlphabet();
+        Alphabet results = machine.getResultsAlphabet();
+
+        int statesCount = conditions.size();
+        int inputsCount = transitions.size();
+        int[] transitionTable = new int[statesCount * inputsCount];
+        int[] outputTable = new int[statesCount * inputsCount];
+
+        for (int state = 0; state < statesCount; state++) {
+            int output = results.getId(machine.getResults().get(state));
+
+            for (int input = 0; input < inputsCount; input++) {
+                int index = state * inputsCount + input;
+                transitionTable[index] = conditions.getId(machine.getConditionsMatrix().get(input).get(state));
+                outputTable[index] = output;
+            }
+        }
+
+        return new CompiledMachine(conditions, transitions, results,
+                conditions.getId(machine.getStartCondition()),
+                transitionTable, outputTable);
+    }
+
+    public Alphabet getConditions() {
+        return conditions;
+    }
+
+    public Alphabet getTransitions() {
+        return transitions;
+    }
+
+    public Alphabet getResults() {
+        return results;
+    }
+
+    public int getStatesCount() {
+        return conditions.size();
+    }
+
+    public int getInputsCount() {
+        return inputsCount;
+    }
+
+    public int getOutputsCount() {
+        return results.size();
+    }
+
+    public int getStartState() {
+        return startState;
+    }
+
+    /**
+     * Число входов, обрабатываемых одним чтением таблицы при пакетном прогоне
+     * без записи состояний (1, если таблица шага по блокам не построена).
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    public int getNextState(int state, int input) {
+        return transitionTable[state * inputsCount + input];
+    }
+
+    public int getOutput(int state, int input) {
+        return outputTable[state * inputsCount + input];
+    }
+
+    /**
+     * Прогоняет входы {@code inputs[from..to)} начиная с состояния {@code state}.
+     * Состояния и выходы каждого такта записываются по индексу входа, если
+     * соответствующий массив не {@code null}.
+     *
+     * @return индекс первого необработанного входа и последнее достигнутое
+     * состояние, упакованные в {@code long} (см. {@link #stopIndex(long)},
+     * {@link #stopState(long)}); при успехе индекс равен {@code to}
+     */
+    public long run(int state, int[] inputs, int from, int to, int[] states, int[] outputs) {
+        if (strideTable != null && states == null && to - from >= stride) {
+            return runStrided(state, inputs, from, to, outputs);
+        }
+        return runSingle(state, inputs, from, to, states, outputs);
+    }
+
+    private long runSingle(int state, int[] inputs, int from, int to, int[] states, int[] outputs) {
+        if (packedTable != null) {
+            return runPacked(state, inputs, from, to, states, outputs);
+        }
+        return runPlain(state, inputs, from, to, states, outputs);
+    }
+
+    /**
+     * Прогон по несжатым таблицам. Этот путь, {@link #runPacked} и
+     * {@link #runStrided} доступны в пакете, чтобы тесты и замеры могли
+     * сравнить их между собой; {@link #run} выбирает путь сам.
+     */
+    long runPlain(int state, int[] inputs, int from, int to, int[] states, int[] outputs) {
+        int index = from;
+        for (; index < to; index++) {
+            int input = inputs[index];
+            if (input < 0 || input >= inputsCount) {
+                break;
+            }
+
+            int cell = state * inputsCount + input;
+            int nextState = transitionTable[cell];
+            if (nextState == UNDEFINED) {
+                break;
+            }
+
+            if (states != null) {
+                states[index] = nextState;
+            }
+            if (outputs != null) {
+                outputs[index] = outputTable[cell];
+            }
+            state = nextState;
+        }
+
+        return pack(index, state);
+    }
+
+    /**
+     * Как {@link #run}, но дополнительно останавливается после первого такта,
+     * ячейка {@code state * inputsCount + input} которого отмечена в битовом
+     * множестве {@code stopCells}.
+     */
+    public long runUntil(int state, int[] inputs, int from, int to, int[] states, int[] outputs,
+                         long[] stopCells) {
+        int index = from;
+        while (index < to) {
+            int input = inputs[index];
+            if (input < 0 || input >= inputsCount) {
+                break;
+            }
+
+            int cell = state * inputsCount + input;
+            int nextState = transitionTable[cell];
+            if (nextState == UNDEFINED) {
+                break;
+            }
+
+            if (states != null) {
+                states[index] = nextState;
+            }
+            if (outputs != null) {
+                outputs[index] = outputTable[cell];
+            }
+            state = nextState;
+            index++;
+
+            if ((stopCells[cell >>> 6] & (1L << cell)) != 0) {
+                break;
+            }
+        }
+
+        return pack(index, state);
+    }
+
+    /**
+     * Прогон блоками по {@link #stride} входов. Блок с неизвестным входом или
+     * отсутствующим переходом проходится по одному такту, чтобы точно найти
+     * место остановки. Требует построенной таблицы шага ({@code getStride() > 1}).
+     */
+    long runStrided(int state, int[] inputs, int from, int to, int[] outputs) {
+        int[] table = strideTable;
+        int k = stride;
+        int keyBits = strideKeyBits;
+        int cellSize = k + 1;
+        int inputMask = (1 << keyBits) - 1;
+
+        int index = from;
+        while (index <= to - k) {
+            int key = state;
+            int bits = 0;
+            for (int j = 0; j < k; j++) {
+                int input = inputs[index + j];
+                bits |= input;
+                key = (key << keyBits) | input;
+            }
+
+            int offset = key * cellSize;
+            if ((bits & inputMask) != bits || table[offset] == UNDEFINED) {
+                long run = runSingle(state, inputs, index, index + k, null, outputs);
+                if (stopIndex(run) != index + k) {
+                    return run;
+                }
+                state = stopState(run);
+            } else {
+                if (outputs != null) {
+                    for (int j = 0; j < k; j++) {
+                        outputs[index + j] = table[offset + 1 + j];
+                    }
+                }
+                state = table[offset];
+            }
+            index += k;
+        }
+
+        return runSingle(state, inputs, index, to, null, outputs);
+    }
+
+    /**
+     * Требует упакованной таблицы ({@link #hasPackedTable()}).
+     */
+    long runPacked(int state, int[] inputs, int from, int to, int[] states, int[] outputs) {
+        int[] table = packedTable;
+        int index = from;
+        for (; index < to; index++) {
+            int input = inputs[index];
+            if (input < 0 || input >= inputsCount) {
+                break;
+            }
+
+            int entry = table[state * inputsCount + input];
+            if (entry == UNDEFINED) {
+                break;
+            }
+
+            state = entry & PACKED_STATE_MASK;
+            if (states != null) {
+                states[index] = state;
+            }
+            if (outputs != null) {
+                outputs[index] = entry >>> PACKED_STATE_BITS;
+            }
+        }
+
+        return pack(index, state);
+    }
+
+    static long pack(int index, int state) {
+        return ((long) index << 32) | (state & 0xFFFFFFFFL);
+    }
+
+    boolean hasPackedTable() {
+        return packedTable != null;
+    }
+
+    int[] getTransitionTable() {
+        return transitionTable;
+    }
+
+    public static int stopIndex(long run) {
+        return (int) (run >>> 32);
+    }
+
+    public static int stopState(long run) {
+        return (int) run;
+    }
+}
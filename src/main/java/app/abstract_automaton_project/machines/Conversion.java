@@ -0,0 +1,189 @@
+package app.abstract_automaton_project.machines;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Преобразования между автоматами Мили и Мура с последующей минимизацией.
+ * <p>
+ * Автомат Мура на каждом такте выдает выход текущего состояния, поэтому
+ * Мур → Мили точен: λ(s, x) = μ(s). Обратное преобразование возможно только
+ * со сдвигом на такт: состояние автомата Мура — пара (состояние, выход, с
+ * которым в него пришли), и на такте t выдается выход автомата Мили с такта
+ * t - 1. Выход первого такта не соответствует ничему и выбирается так, чтобы
+ * не добавлять лишних состояний.
+ */
+final class Conversion {
+
+    static MealyMachine toMealy(MoorMachine machine) {
+        List<List<String>> conditionsMatrix = new ArrayList<>();
+        List<List<String>> resultsMatrix = new ArrayList<>();
+
+        for (List<String> conditionsRow: machine.getConditionsMatrix()) {
+            List<String> resultsRow = new ArrayList<>();
+            for (int state = 0; state < conditionsRow.size(); state++) {
+                resultsRow.add(conditionsRow.get(state).equals("-") ? "-" : machine.getResults().get(state));
+            }
+
+            conditionsMatrix.add(new ArrayList<>(conditionsRow));
+            resultsMatrix.add(resultsRow);
+        }
+
+        MealyMachine mealyMachine = new MealyMachine();
+        mealyMachine.setParams(conditionsMatrix, resultsMatrix, new ArrayList<>(machine.getConditions()),
+                new ArrayList<>(machine.getTransitions()), machine.getStartCondition());
+
+        return mealyMachine.minimize().machine();
+    }
+
+    static MoorMachine toMoore(MealyMachine machine) {
+        CompiledMachine compiledMachine = machine.getCompiledMachine();
+        Alphabet conditions = compiledMachine.getConditions();
+        Alphabet results = compiledMachine.getResults();
+        int inputsCount = compiledMachine.getInputsCount();
+        int outputsCount = compiledMachine.getOutputsCount();
+        int startState = compiledMachine.getStartState();
+
+        checkOutputs(compiledMachine);
+
+        Map<Long, Integer> pairIds = new HashMap<>();
+        int[] pairStates = new int[16];
+        int[] pairOutputs = new int[16];
+        int pairsCount = 0;
+
+        pairStates[0] = startState;
+        pairOutputs[0] = getStartOutput(compiledMachine);
+        pairIds.put((long) startState * (outputsCount + 1) + pairOutputs[0] + 1, 0);
+        pairsCount++;
+
+        List<int[]> targets = new ArrayList<>();
+        for (int pair = 0; pair < pairsCount; pair++) {
+            int[] pairTargets = new int[inputsCount];
+
+            for (int input = 0; input < inputsCount; input++) {
+                int nextState = compiledMachine.getNextState(pairStates[pair], input);
+                if (nextState == CompiledMachine.UNDEFINED) {
+                    pairTargets[input] = CompiledMachine.UNDEFINED;
+                    continue;
+                }
+
+                int output = compiledMachine.getOutput(pairStates[pair], input);
+                long key = (long) nextState * (outputsCount + 1) + output + 1;
+                Integer target = pairIds.get(key);
+                if (target == null) {
+                    if (pairsCount == pairStates.length) {
+                        pairStates = Arrays.copyOf(pairStates, pairsCount * 2);
+                        pairOutputs = Arrays.copyOf(pairOutputs, pairsCount * 2);
+                    }
+
+                    target = pairsCount;
+                    pairStates[pairsCount] = nextState;
+                    pairOutputs[pairsCount] = output;
+                    pairIds.put(key, pairsCount++);
+                }
+                pairTargets[input] = target;
+            }
+
+            targets.add(pairTargets);
+        }
+
+        int[] variants = new int[conditions.size()];
+        for (int pair = 0; pair < pairsCount; pair++) {
+            variants[pairStates[pair]]++;
+        }
+
+        Set<String> usedNames = new HashSet<>();
+        List<String> newConditions = new ArrayList<>();
+        List<String> newResults = new ArrayList<>();
+        for (int pair = 0; pair < pairsCount; pair++) {
+            String output = (pairOutputs[pair] == CompiledMachine.UNDEFINED) ? "" : results.getSymbol(pairOutputs[pair]);
+            String name = conditions.getSymbol(pairStates[pair]);
+            if (variants[pairStates[pair]] > 1) {
+                name += "_" + output;
+            }
+            while (!usedNames.add(name)) {
+                name += "_";
+            }
+
+            newConditions.add(name);
+            newResults.add(output);
+        }
+
+        List<List<String>> newConditionsMatrix = new ArrayList<>();
+        for (int input = 0; input < inputsCount; input++) {
+            List<String> conditionsRow = new ArrayList<>();
+            for (int pair = 0; pair < pairsCount; pair++) {
+                int target = targets.get(pair)[input];
+                conditionsRow.add((target == CompiledMachine.UNDEFINED) ? "-" : newConditions.get(target));
+            }
+
+            newConditionsMatrix.add(conditionsRow);
+        }
+
+        MoorMachine moorMachine = new MoorMachine();
+        moorMachine.setParams(newConditionsMatrix, newResults, newConditions,
+                new ArrayList<>(machine.getTransitions()), newConditions.get(0));
+
+        return moorMachine.minimize().machine();
+    }
+
+    /**
+     * Выход "-" на заданном переходе автомата Мили нельзя сделать выходом
+     * состояния автомата Мура.
+     */
+    private static void checkOutputs(CompiledMachine compiledMachine) {
+        int undefinedOutput = compiledMachine.getResults().getId("-");
+        if (undefinedOutput == Alphabet.UNKNOWN) {
+            return;
+        }
+
+        for (int state = 0; state < compiledMachine.getStatesCount(); state++) {
+            for (int input = 0; input < compiledMachine.getInputsCount(); input++) {
+                if (compiledMachine.getNextState(state, input) != CompiledMachine.UNDEFINED
+                        && compiledMachine.getOutput(state, input) == undefinedOutput) {
+                    throw new WrongMachineParams(String.format(
+                            """
+                            Переход "%s" + "%s" задан, но его выход не задан ("-").
+                            Такой автомат нельзя преобразовать в автомат Мура.
+                            """,
+                            compiledMachine.getConditions().getSymbol(state),
+                            compiledMachine.getTransitions().getSymbol(input)
+                    ));
+                }
+            }
+        }
+    }
+
+    /**
+     * Выход начальной пары: выход любого перехода в начальное состояние (тогда
+     * пара совпадет с уже существующей), иначе любой выход автомата.
+     */
+    private static int getStartOutput(CompiledMachine compiledMachine) {
+        int anyOutput = CompiledMachine.UNDEFINED;
+
+        for (int state = 0; state < compiledMachine.getStatesCount(); state++) {
+            for (int input = 0; input < compiledMachine.getInputsCount(); input++) {
+                int nextState = compiledMachine.getNextState(state, input);
+                if (nextState == CompiledMachine.UNDEFINED) {
+                    continue;
+                }
+
+                if (nextState == compiledMachine.getStartState()) {
+                    return compiledMachine.getOutput(state, input);
+                }
+                if (anyOutput == CompiledMachine.UNDEFINED) {
+                    anyOutput = compiledMachine.getOutput(state, input);
+                }
+            }
+        }
+
+        return anyOutput;
+    }
+}
@@ -0,0 +1,151 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проверка эквивалентности двух автоматов алгоритмом Хопкрофта–Карпа: пары
+ * состояний обходятся в ширину от пары начальных, классы предполагаемо
+ * эквивалентных состояний объединяются через систему непересекающихся
+ * множеств. Каждая пара, поставленная в очередь, объединяет два класса,
+ * поэтому пар не больше n1 + n2 и таблица произведения не строится.
+ * <p>
+ * Входы и выходы сопоставляются по именам; вход, которого нет в одном из
+ * автоматов, для него считается неопределенным переходом. Автоматы
+ * эквивалентны, если на любом входе выдают одинаковые выходы и
+ * останавливаются на одном и том же такте. Выходы берутся из таблицы выходов
+ * {@link CompiledMachine}, где у автомата Мура в каждой ячейке записан выход
+ * состояния, из которого выполняется переход, поэтому оба вида автоматов
+ * сравниваются одинаково. При обходе в ширину первое найденное различие дает
+ * кратчайшую различающую последовательность.
+ */
+final class Equivalence {
+
+    private static final int NO_OUTPUT = -2;
+
+    static EquivalenceResult check(CompiledMachine first, CompiledMachine second) {
+        Set<String> inputNames = new LinkedHashSet<>(first.getTransitions().getSymbols());
+        inputNames.addAll(second.getTransitions().getSymbols());
+        List<String> inputs = new ArrayList<>(inputNames);
+
+        int[] firstInputs = new int[inputs.size()];
+        int[] secondInputs = new int[inputs.size()];
+        for (int input = 0; input < inputs.size(); input++) {
+            firstInputs[input] = first.getTransitions().getId(inputs.get(input));
+            secondInputs[input] = second.getTransitions().getId(inputs.get(input));
+        }
+
+        int[] outputMapping = new int[second.getOutputsCount()];
+        for (int output = 0; output < outputMapping.length; output++) {
+            int mapped = first.getResults().getId(second.getResults().getSymbol(output));
+            outputMapping[output] = (mapped == Alphabet.UNKNOWN) ? NO_OUTPUT : mapped;
+        }
+
+        int offset = first.getStatesCount();
+        int[] parent = new int[offset + second.getStatesCount()];
+        for (int element = 0; element < parent.length; element++) {
+            parent[element] = element;
+        }
+
+        PairQueue queue = new PairQueue();
+        queue.add(first.getStartState(), second.getStartState(), -1, -1);
+        union(parent, first.getStartState(), offset + second.getStartState());
+
+        for (int head = 0; head < queue.size; head++) {
+            int left = queue.left[head];
+            int right = queue.right[head];
+
+            for (int input = 0; input < inputs.size(); input++) {
+                int leftNext = (firstInputs[input] == Alphabet.UNKNOWN) ? CompiledMachine.UNDEFINED
+                        : first.getNextState(left, firstInputs[input]);
+                int rightNext = (secondInputs[input] == Alphabet.UNKNOWN) ? CompiledMachine.UNDEFINED
+                        : second.getNextState(right, secondInputs[input]);
+
+                if (leftNext == CompiledMachine.UNDEFINED && rightNext == CompiledMachine.UNDEFINED) {
+                    continue;
+                }
+                boolean differs = (leftNext == CompiledMachine.UNDEFINED || rightNext == CompiledMachine.UNDEFINED)
+                        || first.getOutput(left, firstInputs[input])
+                                != outputMapping[second.getOutput(right, secondInputs[input])];
+                if (differs) {
+                    return EquivalenceResult.ofCounterexample(queue.path(head, inputs, input));
+                }
+
+                if (union(parent, leftNext, offset + rightNext)) {
+                    queue.add(leftNext, rightNext, head, input);
+                }
+            }
+        }
+
+        return EquivalenceResult.ofEquivalent();
+    }
+
+    private static int find(int[] parent, int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+
+        return element;
+    }
+
+    private static boolean union(int[] parent, int first, int second) {
+        int firstRoot = find(parent, first);
+        int secondRoot = find(parent, second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+
+        parent[firstRoot] = secondRoot;
+        return true;
+    }
+
+    /**
+     * Очередь пар с обратными ссылками на пару-родителя и вход, по которому
+     * пара получена.
+     */
+    private static final class PairQueue {
+
+        private int[] left = new int[16];
+
+        private int[] right = new int[16];
+
+        private int[] parents = new int[16];
+
+        private int[] inputs = new int[16];
+
+        private int size;
+
+        void add(int leftState, int rightState, int parent, int input) {
+            if (size == left.length) {
+                left = Arrays.copyOf(left, size * 2);
+                right = Arrays.copyOf(right, size * 2);
+                parents = Arrays.copyOf(parents, size * 2);
+                inputs = Arrays.copyOf(inputs, size * 2);
+            }
+
+            left[size] = leftState;
+            right[size] = rightState;
+            parents[size] = parent;
+            inputs[size] = input;
+            size++;
+        }
+
+        List<String> path(int pair, List<String> inputNames, int lastInput) {
+            List<String> path = new ArrayList<>();
+            if (lastInput != -1) {
+                path.add(inputNames.get(lastInput));
+            }
+            for (int current = pair; parents[current] != -1; current = parents[current]) {
+                path.add(inputNames.get(inputs[current]));
+            }
+
+            Collections.reverse(path);
+            return path;
+        }
+    }
+}
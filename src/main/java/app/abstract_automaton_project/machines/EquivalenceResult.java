@@ -0,0 +1,20 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.List;
+
+/**
+ * Результат проверки эквивалентности двух автоматов. Для неэквивалентных
+ * автоматов {@code counterexample} — кратчайшая входная последовательность, на
+ * которой их поведение различается (всегда непустая: до первого такта
+ * автоматы ничего не выдают); для эквивалентных — {@code null}.
+ */
+public record EquivalenceResult(boolean equivalent, List<String> counterexample) {
+
+    static EquivalenceResult ofEquivalent() {
+        return new EquivalenceResult(true, null);
+    }
+
+    static EquivalenceResult ofCounterexample(List<String> counterexample) {
+        return new EquivalenceResult(false, counterexample);
+    }
+}
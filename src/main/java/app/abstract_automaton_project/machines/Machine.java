@@ -18,6 +18,16 @@ public abstract class Machine {
 
     protected String startCondition;
 
+    protected Alphabet conditionsAlphabet;
+
+    protected Alphabet transitionsAlphabet;
+
+    protected Alphabet resultsAlphabet;
+
+    protected CompiledMachine compiledMachine;
+
+    private volatile ShortestPaths shortestPaths;
+
     protected Machine() {
         this.conditionsMatrix = new ArrayList<>();
         this.conditions = new ArrayList<>();
@@ -41,6 +51,19 @@ public abstract class Machine {
         this.startCondition = startCondition;
     }
 
+    protected void setAlphabets(Alphabet conditionsAlphabet,
+                                Alphabet transitionsAlphabet,
+                                Alphabet resultsAlphabet) {
+        this.conditionsAlphabet = conditionsAlphabet;
+        this.transitionsAlphabet = transitionsAlphabet;
+        this.resultsAlphabet = resultsAlphabet;
+    }
+
+    protected void setCompiledMachine(CompiledMachine compiledMachine) {
+        this.compiledMachine = compiledMachine;
+        this.shortestPaths = null;
+    }
+
     public List<List<String>> getConditionsMatrix() {
         return conditionsMatrix;
     }
@@ -57,6 +80,72 @@ public abstract class Machine {
         return startCondition;
     }
 
+    public Alphabet getConditionsAlphabet() {
+        return conditionsAlphabet;
+    }
+
+    public Alphabet getTransitionsAlphabet() {
+        return transitionsAlphabet;
+    }
+
+    public Alphabet getResultsAlphabet() {
+        return resultsAlphabet;
+    }
+
+    public CompiledMachine getCompiledMachine() {
+        return compiledMachine;
+    }
+
+    /**
+     * Таблица кратчайших путей между состояниями; строится при первом
+     * обращении.
+     */
+    public ShortestPaths getShortestPaths() {
+        ShortestPaths paths = shortestPaths;
+        if (paths == null) {
+            synchronized (this) {
+                paths = shortestPaths;
+                if (paths == null) {
+                    paths = new ShortestPaths(compiledMachine);
+                    shortestPaths = paths;
+                }
+            }
+        }
+
+        return paths;
+    }
+
+    /**
+     * Кратчайшая входная последовательность, переводящая автомат из состояния
+     * {@code from} в {@code to}, или {@code null}, если {@code to} недостижимо.
+     */
+    public List<String> getShortestInputs(String from, String to) {
+        return getShortestPaths().getInputs(from, to);
+    }
+
+    public StructureReport analyzeStructure() {
+        return StructureAnalysis.analyze(compiledMachine);
+    }
+
+    /**
+     * Копия автомата без состояний, недостижимых из начального (или сам
+     * автомат, если таких нет).
+     */
+    public abstract Machine withoutUnreachableStates();
+
+    /**
+     * Номер каждого из {@code states} в этом списке, -1 для остальных состояний.
+     */
+    protected int[] getLocalNumbers(int[] states) {
+        int[] localNumbers = new int[conditionsAlphabet.size()];
+        Arrays.fill(localNumbers, -1);
+        for (int local = 0; local < states.length; local++) {
+            localNumbers[states[local]] = local;
+        }
+
+        return localNumbers;
+    }
+
     protected void checkConditionsList(List<String> conditions) {
         if (conditions.isEmpty()) {
             throw new WrongMachineParams("Список состояний не может быть пустым!");
@@ -94,8 +183,8 @@ public abstract class Machine {
     }
 
     protected void checkConditionsMatrix(List<List<String>> conditionsMatrix,
-                                       List<String> conditions,
-                                       List<String> transitions) {
+                                       Alphabet conditions,
+                                       Alphabet transitions) {
 
         List<String> wrongConditions = new ArrayList<>();
 
@@ -149,7 +238,7 @@ public abstract class Machine {
         }
     }
 
-    protected void checkStartCondition(List<String> conditions, String condition) {
+    protected void checkStartCondition(Alphabet conditions, String condition) {
         if (!conditions.contains(condition)) {
             throw new WrongMachineParams(String.format(
                     """
@@ -20,26 +20,110 @@ public class MealyMachine extends Machine {
                           List<String> transitions,
                           String startCondition) {
 
+        Alphabet conditionsAlphabet = new Alphabet(conditions);
+        Alphabet transitionsAlphabet = new Alphabet(transitions);
+
         checkConditionsList(conditions);
         checkInputsList(transitions);
-        checkConditionsMatrix(conditionsMatrix, conditions, transitions);
-        checkResultsMatrix(resultsMatrix, conditions, transitions);
-        checkStartCondition(conditions, startCondition);
+        checkConditionsMatrix(conditionsMatrix, conditionsAlphabet, transitionsAlphabet);
+        checkResultsMatrix(resultsMatrix, conditionsAlphabet, transitionsAlphabet);
+        checkStartCondition(conditionsAlphabet, startCondition);
 
         setConditionsMatrix(conditionsMatrix);
         this.resultsMatrix = resultsMatrix;
         setConditions(conditions);
         setTransitions(transitions);
         setStartCondition(startCondition);
+        setAlphabets(conditionsAlphabet, transitionsAlphabet, Alphabet.distinct(
+                resultsMatrix.stream()
+                        .flatMap(List::stream)
+                        .toList()));
+        setCompiledMachine(CompiledMachine.compile(this));
     }
 
     public List<List<String>> getResultsMatrix() {
         return resultsMatrix;
     }
 
+    /**
+     * Минимальный автомат Мили, эквивалентный данному (см. {@link Minimization}).
+     * Состояния нового автомата названы по первому из объединенных состояний.
+     */
+    public MinimizedMachine<MealyMachine> minimize() {
+        Minimization.Quotient quotient = Minimization.minimize(compiledMachine);
+
+        return new MinimizedMachine<>(buildQuotient(quotient.representatives(), quotient.classOf()),
+                quotient.stateMapping());
+    }
+
+    /**
+     * Проверяет, что автоматы выдают одинаковые выходы на любой входной
+     * последовательности (входы и выходы сопоставляются по именам).
+     */
+    public EquivalenceResult checkEquivalence(MealyMachine other) {
+        return Equivalence.check(compiledMachine, other.compiledMachine);
+    }
+
+    /**
+     * Минимальный автомат Мура с тем же поведением, сдвинутым на один такт
+     * (см. {@link Conversion}).
+     *
+     * @throws WrongMachineParams если на заданном переходе не задан выход
+     */
+    public MoorMachine toMoore() {
+        return Conversion.toMoore(this);
+    }
+
+    @Override
+    public MealyMachine withoutUnreachableStates() {
+        int[] reachable = StructureAnalysis.getReachableStates(compiledMachine);
+        if (reachable.length == conditionsAlphabet.size()) {
+            return this;
+        }
+
+        return buildQuotient(reachable, getLocalNumbers(reachable));
+    }
+
+    /**
+     * Автомат из состояний {@code representatives} (имена сохраняются), где
+     * переход в состояние {@code s} заменен переходом в
+     * {@code representatives[classOf[s]]}.
+     */
+    private MealyMachine buildQuotient(int[] representatives, int[] classOf) {
+        List<String> newConditions = new ArrayList<>();
+        for (int state: representatives) {
+            newConditions.add(conditionsAlphabet.getSymbol(state));
+        }
+
+        List<List<String>> newConditionsMatrix = new ArrayList<>();
+        List<List<String>> newResultsMatrix = new ArrayList<>();
+        for (int input = 0; input < transitionsAlphabet.size(); input++) {
+            List<String> conditionsRow = new ArrayList<>();
+            List<String> resultsRow = new ArrayList<>();
+
+            for (int state: representatives) {
+                int target = compiledMachine.getNextState(state, input);
+                conditionsRow.add((target == CompiledMachine.UNDEFINED)
+                        ? "-"
+                        : newConditions.get(classOf[target]));
+                resultsRow.add(resultsMatrix.get(input).get(state));
+            }
+
+            newConditionsMatrix.add(conditionsRow);
+            newResultsMatrix.add(resultsRow);
+        }
+
+        MealyMachine machine = new MealyMachine();
+        machine.setParams(newConditionsMatrix, newResultsMatrix, newConditions,
+                new ArrayList<>(transitionsAlphabet.getSymbols()),
+                newConditions.get(classOf[compiledMachine.getStartState()]));
+
+        return machine;
+    }
+
     private void checkResultsMatrix(List<List<String>> resultsMatrix,
-                                    List<String> conditions,
-                                    List<String> transitions) {
+                                    Alphabet conditions,
+                                    Alphabet transitions) {
 
         if (resultsMatrix.size() != transitions.size()) {
             throw new WrongMachineParams(String.format(
@@ -96,12 +180,7 @@ public class MealyMachine extends Machine {
 
     @Override
     public List<String> getResultsList() {
-        Set<String> results = new HashSet<>();
-        for (List<String> resultsRow: resultsMatrix) {
-            results.addAll(resultsRow);
-        }
-
-        return results.stream()
+        return getResultsAlphabet().getSymbols().stream()
                 .sorted()
                 .toList();
     }
@@ -0,0 +1,316 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Минимизация автомата алгоритмом Хопкрофта (уточнение разбиения) над
+ * плотными таблицами {@link CompiledMachine}, O(m·n·log n) для n состояний и
+ * m входов.
+ * <p>
+ * Рассматриваются только достижимые из начального состояния состояния.
+ * Отсутствующие переходы ведут в дополнительное поглощающее состояние, так что
+ * частично заданные автоматы минимизируются как есть: эквивалентны только
+ * состояния с одинаково заданными переходами.
+ */
+final class Minimization {
+
+    private static final int UNDEFINED_OUTPUT = -2;
+
+    private static final int SINK_OUTPUT = -3;
+
+    /**
+     * Номер класса эквивалентности каждого состояния (-1 для недостижимых),
+     * представитель каждого класса (наименьший номер состояния в классе)
+     * и соответствие имен.
+     */
+    record Quotient(int[] classOf, int[] representatives, Map<String, String> stateMapping) {
+
+        int classesCount() {
+            return representatives.length;
+        }
+    }
+
+    /**
+     * Подходит для автоматов обоих видов: у автомата Мура в каждой ячейке
+     * таблицы выходов записан выход исходного состояния, а выход состояния без
+     * заданных переходов никогда не выдается и на эквивалентность не влияет.
+     */
+    static Quotient minimize(CompiledMachine compiledMachine) {
+        int[] reachable = StructureAnalysis.getReachableStates(compiledMachine);
+        int statesCount = reachable.length;
+        int inputsCount = compiledMachine.getInputsCount();
+        int sink = statesCount;
+        int size = statesCount + 1;
+
+        int[] localOf = new int[compiledMachine.getStatesCount()];
+        Arrays.fill(localOf, -1);
+        for (int local = 0; local < statesCount; local++) {
+            localOf[reachable[local]] = local;
+        }
+
+        int[] next = new int[size * inputsCount];
+        for (int local = 0; local < size; local++) {
+            for (int input = 0; input < inputsCount; input++) {
+                int target = (local == sink) ? CompiledMachine.UNDEFINED
+                        : compiledMachine.getNextState(reachable[local], input);
+                next[local * inputsCount + input] = (target == CompiledMachine.UNDEFINED) ? sink : localOf[target];
+            }
+        }
+
+        Partition partition = new Partition(size);
+        partition.init(getSignatureClasses(compiledMachine, reachable));
+        refine(partition, next, size, inputsCount);
+
+        return buildQuotient(compiledMachine, reachable, partition);
+    }
+
+    /**
+     * Начальное разбиение: состояния с одинаковыми выходами и одинаковым
+     * набором заданных переходов; поглощающее состояние — отдельный класс.
+     */
+    private static int[] getSignatureClasses(CompiledMachine compiledMachine, int[] reachable) {
+        int inputsCount = compiledMachine.getInputsCount();
+        int[] classes = new int[reachable.length + 1];
+        Map<Signature, Integer> signatures = new HashMap<>();
+
+        for (int local = 0; local <= reachable.length; local++) {
+            int[] row = new int[inputsCount + 1];
+            if (local == reachable.length) {
+                Arrays.fill(row, SINK_OUTPUT);
+            } else {
+                int state = reachable[local];
+                for (int input = 0; input < inputsCount; input++) {
+                    row[input] = (compiledMachine.getNextState(state, input) == CompiledMachine.UNDEFINED)
+                            ? UNDEFINED_OUTPUT
+                            : compiledMachine.getOutput(state, input);
+                }
+            }
+
+            classes[local] = signatures.computeIfAbsent(new Signature(row), signature -> signatures.size());
+        }
+
+        return classes;
+    }
+
+    /**
+     * Уточнение разбиения. Разделителем служит блок целиком для всех входов
+     * сразу; при расщеплении блока в очередь ставится меньшая часть (если сам
+     * блок уже в очереди, его оставшаяся часть остается в ней же).
+     */
+    private static void refine(Partition partition, int[] next, int size, int inputsCount) {
+        int[][] inverseStarts = new int[inputsCount][];
+        int[][] inverseSources = new int[inputsCount][];
+        for (int input = 0; input < inputsCount; input++) {
+            int[] starts = new int[size + 1];
+            for (int state = 0; state < size; state++) {
+                starts[next[state * inputsCount + input] + 1]++;
+            }
+            for (int state = 0; state < size; state++) {
+                starts[state + 1] += starts[state];
+            }
+
+            int[] sources = new int[size];
+            int[] fill = Arrays.copyOf(starts, size);
+            for (int state = 0; state < size; state++) {
+                sources[fill[next[state * inputsCount + input]]++] = state;
+            }
+
+            inverseStarts[input] = starts;
+            inverseSources[input] = sources;
+        }
+
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        for (int block = 0; block < partition.blocksCount; block++) {
+            worklist.add(block);
+        }
+
+        int[] splitter = new int[size];
+        int[] touched = new int[size];
+        while (!worklist.isEmpty()) {
+            int block = worklist.poll();
+
+            int splitterSize = partition.copyBlock(block, splitter);
+            for (int input = 0; input < inputsCount; input++) {
+                int[] starts = inverseStarts[input];
+                int[] sources = inverseSources[input];
+                int touchedCount = 0;
+
+                for (int i = 0; i < splitterSize; i++) {
+                    int target = splitter[i];
+                    for (int j = starts[target]; j < starts[target + 1]; j++) {
+                        int marked = partition.mark(sources[j]);
+                        if (marked != -1) {
+                            touched[touchedCount++] = marked;
+                        }
+                    }
+                }
+
+                for (int i = 0; i < touchedCount; i++) {
+                    int created = partition.split(touched[i]);
+                    if (created != -1) {
+                        worklist.add(created);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Quotient buildQuotient(CompiledMachine compiledMachine, int[] reachable, Partition partition) {
+        int[] classOf = new int[compiledMachine.getStatesCount()];
+        Arrays.fill(classOf, -1);
+
+        int[] classOfBlock = new int[partition.blocksCount];
+        Arrays.fill(classOfBlock, -1);
+        int[] representatives = new int[reachable.length];
+        int classesCount = 0;
+
+        for (int local = 0; local < reachable.length; local++) {
+            int block = partition.blockOf[local];
+            if (classOfBlock[block] == -1) {
+                classOfBlock[block] = classesCount;
+                representatives[classesCount++] = reachable[local];
+            }
+            classOf[reachable[local]] = classOfBlock[block];
+        }
+        representatives = Arrays.copyOf(representatives, classesCount);
+
+        Alphabet conditions = compiledMachine.getConditions();
+        Map<String, String> stateMapping = new LinkedHashMap<>();
+        for (int state: reachable) {
+            stateMapping.put(conditions.getSymbol(state), conditions.getSymbol(representatives[classOf[state]]));
+        }
+
+        return new Quotient(classOf, representatives, stateMapping);
+    }
+
+    private record Signature(int[] row) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Signature signature && Arrays.equals(row, signature.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(row);
+        }
+    }
+
+    /**
+     * Разбиение множества состояний на блоки. Состояния блока лежат подряд в
+     * {@link #elements}; отмеченные при обработке разделителя переносятся в
+     * начало своего блока.
+     */
+    private static final class Partition {
+
+        private final int[] elements;
+
+        private final int[] positions;
+
+        private final int[] blockOf;
+
+        private final int[] blockStarts;
+
+        private final int[] blockEnds;
+
+        private final int[] markedCounts;
+
+        private int blocksCount;
+
+        private Partition(int size) {
+            this.elements = new int[size];
+            this.positions = new int[size];
+            this.blockOf = new int[size];
+            this.blockStarts = new int[size];
+            this.blockEnds = new int[size];
+            this.markedCounts = new int[size];
+        }
+
+        private void init(int[] classes) {
+            blocksCount = Arrays.stream(classes).max().orElse(-1) + 1;
+
+            int[] counts = new int[blocksCount + 1];
+            for (int item: classes) {
+                counts[item + 1]++;
+            }
+            for (int block = 0; block < blocksCount; block++) {
+                counts[block + 1] += counts[block];
+                blockStarts[block] = counts[block];
+                blockEnds[block] = counts[block + 1];
+            }
+
+            int[] fill = Arrays.copyOf(counts, blocksCount);
+            for (int state = 0; state < classes.length; state++) {
+                int position = fill[classes[state]]++;
+                elements[position] = state;
+                positions[state] = position;
+                blockOf[state] = classes[state];
+            }
+        }
+
+        private int copyBlock(int block, int[] target) {
+            int length = blockEnds[block] - blockStarts[block];
+            System.arraycopy(elements, blockStarts[block], target, 0, length);
+            return length;
+        }
+
+        /**
+         * Переносит состояние в отмеченную часть его блока.
+         *
+         * @return номер блока, если в нем это первое отмеченное состояние, иначе -1
+         */
+        private int mark(int state) {
+            int block = blockOf[state];
+            int position = positions[state];
+            int markedEnd = blockStarts[block] + markedCounts[block];
+            if (position < markedEnd) {
+                return -1;
+            }
+
+            int other = elements[markedEnd];
+            elements[markedEnd] = state;
+            positions[state] = markedEnd;
+            elements[position] = other;
+            positions[other] = position;
+
+            return (markedCounts[block]++ == 0) ? block : -1;
+        }
+
+        /**
+         * Отделяет меньшую из частей (отмеченную или неотмеченную) в новый блок.
+         *
+         * @return номер нового блока или -1, если блок не расщепился
+         */
+        private int split(int block) {
+            int start = blockStarts[block];
+            int end = blockEnds[block];
+            int marked = markedCounts[block];
+            markedCounts[block] = 0;
+
+            if (marked == end - start) {
+                return -1;
+            }
+
+            int created = blocksCount++;
+            if (marked <= end - start - marked) {
+                blockStarts[created] = start;
+                blockEnds[created] = start + marked;
+                blockStarts[block] = start + marked;
+            } else {
+                blockStarts[created] = start + marked;
+                blockEnds[created] = end;
+                blockEnds[block] = start + marked;
+            }
+
+            for (int position = blockStarts[created]; position < blockEnds[created]; position++) {
+                blockOf[elements[position]] = created;
+            }
+
+            return created;
+        }
+    }
+}
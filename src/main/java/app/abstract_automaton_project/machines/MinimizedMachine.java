@@ -0,0 +1,11 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.Map;
+
+/**
+ * Результат минимизации: минимальный эквивалентный автомат и соответствие
+ * имен достижимых состояний исходного автомата именам его состояний.
+ * Недостижимые из начального состояния состояния в соответствие не входят.
+ */
+public record MinimizedMachine<M extends Machine>(M machine, Map<String, String> stateMapping) {
+}
@@ -20,8 +20,11 @@ public class MoorMachine extends Machine {
                           List<String> transitions,
                           String startCondition) {
 
-        checkConditionsMatrix(conditionsMatrix, conditions, transitions);
-        checkStartCondition(conditions, startCondition);
+        Alphabet conditionsAlphabet = new Alphabet(conditions);
+        Alphabet transitionsAlphabet = new Alphabet(transitions);
+
+        checkConditionsMatrix(conditionsMatrix, conditionsAlphabet, transitionsAlphabet);
+        checkStartCondition(conditionsAlphabet, startCondition);
         checkResults(results, conditions.size());
 
         setConditionsMatrix(conditionsMatrix);
@@ -29,12 +32,85 @@ public class MoorMachine extends Machine {
         setConditions(conditions);
         setTransitions(transitions);
         setStartCondition(startCondition);
+        setAlphabets(conditionsAlphabet, transitionsAlphabet, Alphabet.distinct(results));
+        setCompiledMachine(CompiledMachine.compile(this));
     }
 
     public List<String> getResults() {
         return results;
     }
 
+    /**
+     * Минимальный автомат Мура, эквивалентный данному (см. {@link Minimization}).
+     * Состояния нового автомата названы по первому из объединенных состояний.
+     */
+    public MinimizedMachine<MoorMachine> minimize() {
+        Minimization.Quotient quotient = Minimization.minimize(compiledMachine);
+
+        return new MinimizedMachine<>(buildQuotient(quotient.representatives(), quotient.classOf()),
+                quotient.stateMapping());
+    }
+
+    /**
+     * Проверяет, что автоматы выдают одинаковые выходы на любой входной
+     * последовательности (входы и выходы сопоставляются по именам).
+     */
+    public EquivalenceResult checkEquivalence(MoorMachine other) {
+        return Equivalence.check(compiledMachine, other.compiledMachine);
+    }
+
+    /**
+     * Минимальный автомат Мили, выдающий на каждом такте тот же выход.
+     */
+    public MealyMachine toMealy() {
+        return Conversion.toMealy(this);
+    }
+
+    @Override
+    public MoorMachine withoutUnreachableStates() {
+        int[] reachable = StructureAnalysis.getReachableStates(compiledMachine);
+        if (reachable.length == conditionsAlphabet.size()) {
+            return this;
+        }
+
+        return buildQuotient(reachable, getLocalNumbers(reachable));
+    }
+
+    /**
+     * Автомат из состояний {@code representatives} (имена сохраняются), где
+     * переход в состояние {@code s} заменен переходом в
+     * {@code representatives[classOf[s]]}.
+     */
+    private MoorMachine buildQuotient(int[] representatives, int[] classOf) {
+        List<String> newConditions = new ArrayList<>();
+        List<String> newResults = new ArrayList<>();
+        for (int state: representatives) {
+            newConditions.add(conditionsAlphabet.getSymbol(state));
+            newResults.add(results.get(state));
+        }
+
+        List<List<String>> newConditionsMatrix = new ArrayList<>();
+        for (int input = 0; input < transitionsAlphabet.size(); input++) {
+            List<String> conditionsRow = new ArrayList<>();
+
+            for (int state: representatives) {
+                int target = compiledMachine.getNextState(state, input);
+                conditionsRow.add((target == CompiledMachine.UNDEFINED)
+                        ? "-"
+                        : newConditions.get(classOf[target]));
+            }
+
+            newConditionsMatrix.add(conditionsRow);
+        }
+
+        MoorMachine machine = new MoorMachine();
+        machine.setParams(newConditionsMatrix, newResults, newConditions,
+                new ArrayList<>(transitionsAlphabet.getSymbols()),
+                newConditions.get(classOf[compiledMachine.getStartState()]));
+
+        return machine;
+    }
+
     private void checkResults(List<String> results, int targetSize) {
         if (results.size() != targetSize) {
             throw new WrongMachineParams(String.format(
@@ -0,0 +1,232 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Кратчайшие входные последовательности между состояниями автомата.
+ * <p>
+ * Для каждого целевого состояния хранится столбец "следующего шага": для
+ * каждого состояния — вход, с которого начинается кратчайший путь к цели
+ * (или {@link CompiledMachine#UNDEFINED}, если цель недостижима). Столбец
+ * строится обходом в ширину по обратным переходам от цели, так что ответ на
+ * запрос — это проход по пути за O(длины пути).
+ * <p>
+ * Для небольших автоматов при первом запросе параллельно строятся все
+ * столбцы; для больших столбцы строятся по мере запросов и хранятся в кэше
+ * недавно использованных столбцов, ограниченном тем же объемом памяти, что и
+ * полная таблица небольшого автомата (а не O(n²)).
+ */
+public final class ShortestPaths {
+
+    private static final long EAGER_TABLE_LIMIT = 1 << 22;
+
+    private final CompiledMachine compiledMachine;
+
+    private final int[] predecessorStarts;
+
+    private final int[] predecessorCells;
+
+    private final AtomicReferenceArray<int[]> nextInputs;
+
+    private final Map<Integer, int[]> recentInputs;
+
+    private volatile boolean precomputed;
+
+    ShortestPaths(CompiledMachine compiledMachine) {
+        this.compiledMachine = compiledMachine;
+
+        int statesCount = compiledMachine.getStatesCount();
+        int[] transitionTable = compiledMachine.getTransitionTable();
+
+        int[] starts = new int[statesCount + 1];
+        for (int target: transitionTable) {
+            if (target != CompiledMachine.UNDEFINED) {
+                starts[target + 1]++;
+            }
+        }
+        for (int state = 0; state < statesCount; state++) {
+            starts[state + 1] += starts[state];
+        }
+
+        int[] cells = new int[starts[statesCount]];
+        int[] fill = new int[statesCount];
+        System.arraycopy(starts, 0, fill, 0, statesCount);
+        for (int cell = 0; cell < transitionTable.length; cell++) {
+            int target = transitionTable[cell];
+            if (target != CompiledMachine.UNDEFINED) {
+                cells[fill[target]++] = cell;
+            }
+        }
+
+        this.predecessorStarts = starts;
+        this.predecessorCells = cells;
+
+        if ((long) statesCount * statesCount <= EAGER_TABLE_LIMIT) {
+            this.nextInputs = new AtomicReferenceArray<>(statesCount);
+            this.recentInputs = null;
+        } else {
+            int capacity = (int) Math.max(1, EAGER_TABLE_LIMIT / statesCount);
+            this.nextInputs = null;
+            this.recentInputs = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+
+    public CompiledMachine getCompiledMachine() {
+        return compiledMachine;
+    }
+
+    /**
+     * Строит столбцы для всех целевых состояний параллельно в {@code pool}.
+     * Для больших автоматов ничего не делает: все столбцы не поместятся в кэш.
+     */
+    public void precompute(ForkJoinPool pool) {
+        if (precomputed || nextInputs == null) {
+            return;
+        }
+
+        pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, compiledMachine.getStatesCount())
+                .parallel()
+                .forEach(this::getNextInputs)));
+        precomputed = true;
+    }
+
+    /**
+     * Номера входов кратчайшей последовательности из {@code from} в {@code to}
+     * (пустая при совпадении состояний) или {@code null}, если {@code to}
+     * недостижимо.
+     */
+    public int[] getInputIds(int from, int to) {
+        if (!precomputed && nextInputs != null) {
+            precompute(ForkJoinPool.commonPool());
+        }
+
+        int[] column = getNextInputs(to);
+        if (from != to && column[from] == CompiledMachine.UNDEFINED) {
+            return null;
+        }
+
+        int length = 0;
+        for (int state = from; state != to; length++) {
+            state = compiledMachine.getNextState(state, column[state]);
+        }
+
+        int[] inputs = new int[length];
+        int state = from;
+        for (int index = 0; index < length; index++) {
+            inputs[index] = column[state];
+            state = compiledMachine.getNextState(state, column[state]);
+        }
+
+        return inputs;
+    }
+
+    /**
+     * Кратчайшая входная последовательность из состояния {@code from} в
+     * {@code to} или {@code null}, если {@code to} недостижимо.
+     */
+    public List<String> getInputs(String from, String to) {
+        int[] inputs = getInputIds(getStateId(from), getStateId(to));
+        if (inputs == null) {
+            return null;
+        }
+
+        List<String> names = new ArrayList<>(inputs.length);
+        for (int input: inputs) {
+            names.add(compiledMachine.getTransitions().getSymbol(input));
+        }
+
+        return names;
+    }
+
+    private int getStateId(String state) {
+        int id = compiledMachine.getConditions().getId(state);
+        if (id == Alphabet.UNKNOWN) {
+            throw new IllegalArgumentException("Неизвестное состояние: " + state);
+        }
+
+        return id;
+    }
+
+    private int[] getNextInputs(int target) {
+        if (nextInputs == null) {
+            return getRecentInputs(target);
+        }
+
+        int[] column = nextInputs.get(target);
+        if (column == null) {
+            column = buildNextInputs(target);
+            if (!nextInputs.compareAndSet(target, null, column)) {
+                column = nextInputs.get(target);
+            }
+        }
+
+        return column;
+    }
+
+    /**
+     * Столбец из кэша недавно использованных; построение идет вне блокировки,
+     * так что параллельные запросы могут построить один столбец дважды.
+     */
+    private int[] getRecentInputs(int target) {
+        synchronized (recentInputs) {
+            int[] column = recentInputs.get(target);
+            if (column != null) {
+                return column;
+            }
+        }
+
+        int[] column = buildNextInputs(target);
+        synchronized (recentInputs) {
+            recentInputs.put(target, column);
+        }
+
+        return column;
+    }
+
+    /**
+     * Обход в ширину от {@code target} по обратным переходам: состояние,
+     * впервые найденное через переход {@code (state, input)}, получает
+     * следующим шагом {@code input}.
+     */
+    private int[] buildNextInputs(int target) {
+        int statesCount = compiledMachine.getStatesCount();
+        int inputsCount = compiledMachine.getInputsCount();
+
+        int[] column = new int[statesCount];
+        Arrays.fill(column, CompiledMachine.UNDEFINED);
+        long[] visited = new long[StructureAnalysis.words(statesCount)];
+        int[] queue = new int[statesCount];
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = target;
+        visited[target >>> 6] |= 1L << target;
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = predecessorStarts[state]; i < predecessorStarts[state + 1]; i++) {
+                int cell = predecessorCells[i];
+                int source = cell / inputsCount;
+                if (!StructureAnalysis.contains(visited, source)) {
+                    visited[source >>> 6] |= 1L << source;
+                    column[source] = cell % inputsCount;
+                    queue[tail++] = source;
+                }
+            }
+        }
+
+        return column;
+    }
+}
@@ -0,0 +1,224 @@
+package app.abstract_automaton_project.machines;
+
+/**
+ * Анализ графа переходов по таблицам {@link CompiledMachine}: достижимость
+ * (обход в ширину) и компоненты сильной связности (итеративный алгоритм
+ * Тарьяна в варианте Пирса, одно число на состояние и битовые множества).
+ * Рекурсии нет, поэтому глубина графа ограничена только памятью.
+ */
+final class StructureAnalysis {
+
+    static StructureReport analyze(CompiledMachine compiledMachine) {
+        int statesCount = compiledMachine.getStatesCount();
+        int inputsCount = compiledMachine.getInputsCount();
+        int[] transitionTable = compiledMachine.getTransitionTable();
+
+        long[] reachable = getReachable(compiledMachine);
+        int[] componentOf = getComponents(compiledMachine);
+
+        int componentsCount = 0;
+        for (int state = 0; state < statesCount; state++) {
+            componentsCount = Math.max(componentsCount, componentOf[state] + 1);
+        }
+
+        int[] componentSizes = new int[componentsCount];
+        long[] openComponents = new long[words(componentsCount)];
+        long[] deadEnds = new long[words(statesCount)];
+        long[] sinks = new long[words(statesCount)];
+        long undefinedTransitions = 0;
+
+        for (int state = 0; state < statesCount; state++) {
+            int component = componentOf[state];
+            componentSizes[component]++;
+
+            int defined = 0;
+            boolean selfOnly = true;
+            for (int cell = state * inputsCount; cell < (state + 1) * inputsCount; cell++) {
+                int target = transitionTable[cell];
+                if (target == CompiledMachine.UNDEFINED) {
+                    if (contains(reachable, state)) {
+                        undefinedTransitions++;
+                    }
+                    continue;
+                }
+
+                defined++;
+                selfOnly &= target == state;
+                if (componentOf[target] != component) {
+                    set(openComponents, component);
+                }
+            }
+
+            if (defined == 0) {
+                set(deadEnds, state);
+            } else if (selfOnly) {
+                set(sinks, state);
+            }
+        }
+
+        return new StructureReport(compiledMachine, reachable, componentOf, componentSizes,
+                openComponents, deadEnds, sinks, undefinedTransitions);
+    }
+
+    /**
+     * Достижимые из начального состояния состояния в порядке возрастания номеров.
+     */
+    static int[] getReachableStates(CompiledMachine compiledMachine) {
+        long[] reachable = getReachable(compiledMachine);
+
+        int[] states = new int[cardinality(reachable)];
+        int count = 0;
+        for (int state = 0; state < compiledMachine.getStatesCount(); state++) {
+            if (contains(reachable, state)) {
+                states[count++] = state;
+            }
+        }
+
+        return states;
+    }
+
+    private static long[] getReachable(CompiledMachine compiledMachine) {
+        int statesCount = compiledMachine.getStatesCount();
+        int inputsCount = compiledMachine.getInputsCount();
+        int[] transitionTable = compiledMachine.getTransitionTable();
+
+        long[] visited = new long[words(statesCount)];
+        int[] queue = new int[statesCount];
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = compiledMachine.getStartState();
+        set(visited, compiledMachine.getStartState());
+        while (head < tail) {
+            int state = queue[head++];
+            for (int cell = state * inputsCount; cell < (state + 1) * inputsCount; cell++) {
+                int target = transitionTable[cell];
+                if (target != CompiledMachine.UNDEFINED && !contains(visited, target)) {
+                    set(visited, target);
+                    queue[tail++] = target;
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    /**
+     * Номер компоненты сильной связности каждого состояния. Компоненты
+     * нумеруются в порядке завершения, то есть в обратном топологическом:
+     * переходы из компоненты ведут только в компоненты с меньшими номерами.
+     * <p>
+     * Пока состояние на стеке, {@code rindex} хранит его порядковый номер
+     * обхода (или меньший, если найден обратный переход); завершенное состояние
+     * получает значение {@code statesCount - 1 - компонента}, которое больше
+     * любого активного номера, поэтому переходы в завершенные компоненты
+     * сравнение не проходят.
+     */
+    private static int[] getComponents(CompiledMachine compiledMachine) {
+        int statesCount = compiledMachine.getStatesCount();
+        int inputsCount = compiledMachine.getInputsCount();
+        int[] transitionTable = compiledMachine.getTransitionTable();
+
+        int[] rindex = new int[statesCount];
+        long[] visited = new long[words(statesCount)];
+        long[] roots = new long[words(statesCount)];
+
+        int[] callStates = new int[statesCount];
+        int[] callInputs = new int[statesCount];
+        int[] stack = new int[statesCount];
+        int stackSize = 0;
+
+        int index = 0;
+        int component = statesCount - 1;
+
+        for (int start = 0; start < statesCount; start++) {
+            if (contains(visited, start)) {
+                continue;
+            }
+
+            int depth = 0;
+            callStates[0] = start;
+            callInputs[0] = 0;
+            set(visited, start);
+            set(roots, start);
+            rindex[start] = index++;
+
+            while (depth >= 0) {
+                int state = callStates[depth];
+                int input = callInputs[depth];
+
+                if (input < inputsCount) {
+                    callInputs[depth]++;
+                    int target = transitionTable[state * inputsCount + input];
+                    if (target == CompiledMachine.UNDEFINED) {
+                        continue;
+                    }
+
+                    if (!contains(visited, target)) {
+                        depth++;
+                        callStates[depth] = target;
+                        callInputs[depth] = 0;
+                        set(visited, target);
+                        set(roots, target);
+                        rindex[target] = index++;
+                    } else if (rindex[target] < rindex[state]) {
+                        rindex[state] = rindex[target];
+                        clear(roots, state);
+                    }
+                    continue;
+                }
+
+                if (contains(roots, state)) {
+                    index--;
+                    while (stackSize > 0 && rindex[state] <= rindex[stack[stackSize - 1]]) {
+                        rindex[stack[--stackSize]] = component;
+                        index--;
+                    }
+                    rindex[state] = component--;
+                } else {
+                    stack[stackSize++] = state;
+                }
+
+                depth--;
+                if (depth >= 0) {
+                    int parent = callStates[depth];
+                    if (rindex[state] < rindex[parent]) {
+                        rindex[parent] = rindex[state];
+                        clear(roots, parent);
+                    }
+                }
+            }
+        }
+
+        for (int state = 0; state < statesCount; state++) {
+            rindex[state] = statesCount - 1 - rindex[state];
+        }
+
+        return rindex;
+    }
+
+    static int words(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    static boolean contains(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word: bits) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+}
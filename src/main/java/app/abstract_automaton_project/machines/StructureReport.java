@@ -0,0 +1,155 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.Arrays;
+
+/**
+ * Структура графа переходов автомата: достижимые состояния, компоненты сильной
+ * связности, тупиковые состояния (все переходы "-"), поглощающие состояния
+ * (все заданные переходы ведут в себя) и число отсутствующих переходов из
+ * достижимых состояний.
+ * <p>
+ * Компонента замкнута, если из нее нет переходов в другие компоненты: попав в
+ * нее, процесс остается в ней навсегда.
+ */
+public final class StructureReport {
+
+    private final CompiledMachine compiledMachine;
+
+    private final long[] reachable;
+
+    private final int[] componentOf;
+
+    private final int[] componentSizes;
+
+    private final long[] openComponents;
+
+    private final long[] deadEnds;
+
+    private final long[] sinks;
+
+    private final long undefinedTransitionsCount;
+
+    StructureReport(CompiledMachine compiledMachine, long[] reachable, int[] componentOf, int[] componentSizes,
+                    long[] openComponents, long[] deadEnds, long[] sinks, long undefinedTransitionsCount) {
+        this.compiledMachine = compiledMachine;
+        this.reachable = reachable;
+        this.componentOf = componentOf;
+        this.componentSizes = componentSizes;
+        this.openComponents = openComponents;
+        this.deadEnds = deadEnds;
+        this.sinks = sinks;
+        this.undefinedTransitionsCount = undefinedTransitionsCount;
+    }
+
+    public CompiledMachine getCompiledMachine() {
+        return compiledMachine;
+    }
+
+    public boolean isReachable(int state) {
+        return StructureAnalysis.contains(reachable, state);
+    }
+
+    public int getReachableCount() {
+        return StructureAnalysis.cardinality(reachable);
+    }
+
+    public int[] getUnreachableStates() {
+        return collect(reachable, componentOf.length, true);
+    }
+
+    public int getComponentsCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Номер компоненты сильной связности. Переходы из компоненты ведут только в
+     * компоненты с меньшими номерами.
+     */
+    public int getComponentOf(int state) {
+        return componentOf[state];
+    }
+
+    public int getComponentSize(int component) {
+        return componentSizes[component];
+    }
+
+    public boolean isClosedComponent(int component) {
+        return !StructureAnalysis.contains(openComponents, component);
+    }
+
+    public int getLargestComponentSize() {
+        int largest = 0;
+        for (int size: componentSizes) {
+            largest = Math.max(largest, size);
+        }
+
+        return largest;
+    }
+
+    /**
+     * Замкнутые компоненты из нескольких состояний, достижимые из начального:
+     * циклы, из которых процесс уже не выходит.
+     */
+    public int[] getTrapComponents() {
+        long[] traps = new long[StructureAnalysis.words(componentSizes.length)];
+        for (int state = 0; state < componentOf.length; state++) {
+            int component = componentOf[state];
+            if (componentSizes[component] > 1 && isClosedComponent(component) && isReachable(state)) {
+                traps[component >>> 6] |= 1L << component;
+            }
+        }
+
+        return collect(traps, componentSizes.length, false);
+    }
+
+    public boolean isDeadEnd(int state) {
+        return StructureAnalysis.contains(deadEnds, state);
+    }
+
+    public int[] getDeadEndStates() {
+        return collect(deadEnds, componentOf.length, false);
+    }
+
+    public boolean isSink(int state) {
+        return StructureAnalysis.contains(sinks, state);
+    }
+
+    public int[] getSinkStates() {
+        return collect(sinks, componentOf.length, false);
+    }
+
+    public long getUndefinedTransitionsCount() {
+        return undefinedTransitionsCount;
+    }
+
+    /**
+     * Первые {@code limit} отсутствующих переходов из достижимых состояний в
+     * виде ячеек {@code state * inputsCount + input}.
+     */
+    public int[] getUndefinedTransitions(int limit) {
+        int inputsCount = compiledMachine.getInputsCount();
+        int[] transitionTable = compiledMachine.getTransitionTable();
+
+        int[] cells = new int[(int) Math.min(limit, undefinedTransitionsCount)];
+        int count = 0;
+        for (int cell = 0; cell < transitionTable.length && count < cells.length; cell++) {
+            if (transitionTable[cell] == CompiledMachine.UNDEFINED && isReachable(cell / inputsCount)) {
+                cells[count++] = cell;
+            }
+        }
+
+        return cells;
+    }
+
+    private static int[] collect(long[] bits, int bound, boolean complement) {
+        int[] items = new int[bound];
+        int count = 0;
+        for (int index = 0; index < bound; index++) {
+            if (StructureAnalysis.contains(bits, index) != complement) {
+                items[count++] = index;
+            }
+        }
+
+        return Arrays.copyOf(items, count);
+    }
+}
@@ -0,0 +1,113 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+import app.abstract_automaton_project.machines.Machine;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельный прогон множества независимых входных последовательностей
+ * на одном автомате. Все потоки читают общую неизменяемую
+ * {@link CompiledMachine}; результат и ошибка каждой последовательности
+ * возвращаются в ее {@link RunResult} под тем же индексом.
+ */
+public class BatchSimulation {
+
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    public static List<RunResult> run(Machine machine, List<? extends List<String>> sequences) {
+        return run(machine, sequences, ForkJoinPool.commonPool());
+    }
+
+    public static List<RunResult> run(Machine machine, List<? extends List<String>> sequences,
+                                      ForkJoinPool pool) {
+        Alphabet transitions = machine.getTransitionsAlphabet();
+        CompiledMachine compiledMachine = machine.getCompiledMachine();
+        RunResult[] results = new RunResult[sequences.size()];
+
+        pool.invoke(new BatchTask(0, results.length, results, index -> {
+            List<String> sequence = sequences.get(index);
+
+            int[] inputs = new int[sequence.size()];
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i] = transitions.getId(sequence.get(i));
+            }
+
+            return runSequence(compiledMachine, inputs);
+        }));
+
+        return Arrays.asList(results);
+    }
+
+    public static List<RunResult> runEncoded(Machine machine, List<int[]> sequences) {
+        return runEncoded(machine, sequences, ForkJoinPool.commonPool());
+    }
+
+    public static List<RunResult> runEncoded(Machine machine, List<int[]> sequences, ForkJoinPool pool) {
+        CompiledMachine compiledMachine = machine.getCompiledMachine();
+        RunResult[] results = new RunResult[sequences.size()];
+
+        pool.invoke(new BatchTask(0, results.length, results,
+                index -> runSequence(compiledMachine, sequences.get(index))));
+
+        return Arrays.asList(results);
+    }
+
+    private static RunResult runSequence(CompiledMachine compiledMachine, int[] inputs) {
+        int[] outputs = new int[inputs.length];
+        long run = compiledMachine.run(compiledMachine.getStartState(), inputs, 0, inputs.length,
+                null, outputs);
+
+        return RunResult.of(compiledMachine, inputs, run, outputs);
+    }
+
+    @FunctionalInterface
+    private interface SequenceRunner {
+
+        RunResult run(int index);
+    }
+
+    /**
+     * Задача выполняется только внутри пула и не сериализуется: результаты и
+     * способ прогона последовательности помечены {@code transient}.
+     */
+    private static class BatchTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+
+        private final int to;
+
+        private final transient RunResult[] results;
+
+        private final transient SequenceRunner runner;
+
+        private BatchTask(int from, int to, RunResult[] results, SequenceRunner runner) {
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.runner = runner;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = runner.run(i);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(from, middle, results, runner),
+                    new BatchTask(middle, to, results, runner));
+        }
+    }
+}
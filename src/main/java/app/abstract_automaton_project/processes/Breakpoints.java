@@ -0,0 +1,198 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+import java.util.Arrays;
+
+/**
+ * Точки останова прогона: переход в состояние, вход, выход, переход по паре
+ * "состояние + вход" и номер такта. Все условия, кроме номера такта,
+ * компилируются в битовое множество ячеек таблицы переходов, поэтому в цикле
+ * прогона проверка стоит одно чтение бита. Прогон останавливается после
+ * такта, на котором сработало условие.
+ */
+public final class Breakpoints {
+
+    private final CompiledMachine compiledMachine;
+
+    private final long[] stopCells;
+
+    private long[] tacts;
+
+    private boolean empty;
+
+    public Breakpoints(CompiledMachine compiledMachine) {
+        this.compiledMachine = compiledMachine;
+        this.stopCells = new long[(compiledMachine.getStatesCount() * compiledMachine.getInputsCount() + 63) >>> 6];
+        this.tacts = new long[0];
+        this.empty = true;
+    }
+
+    /**
+     * Разбирает список условий через запятую:
+     * {@code state:a, input:x1, output:y2, tact:100, a+x1}. Номер такта
+     * задается так же, как его показывает
+     * {@link MachineProcessInterface#getTactNumber()}.
+     */
+    public static Breakpoints parse(CompiledMachine compiledMachine, String text) {
+        Breakpoints breakpoints = new Breakpoints(compiledMachine);
+
+        for (String item: text.split(",")) {
+            String condition = item.replaceAll("\\s+", "");
+            if (condition.isEmpty()) {
+                continue;
+            }
+
+            int separator = condition.indexOf(':');
+            int plus = condition.indexOf('+');
+            if (separator == -1 && plus != -1) {
+                breakpoints.onTransition(
+                        getId(compiledMachine.getConditions(), condition.substring(0, plus), condition),
+                        getId(compiledMachine.getTransitions(), condition.substring(plus + 1), condition));
+                continue;
+            }
+
+            String value = condition.substring(separator + 1);
+            switch ((separator == -1) ? "" : condition.substring(0, separator)) {
+                case "state" -> breakpoints.onState(getId(compiledMachine.getConditions(), value, condition));
+                case "input" -> breakpoints.onInput(getId(compiledMachine.getTransitions(), value, condition));
+                case "output" -> breakpoints.onOutput(getId(compiledMachine.getResults(), value, condition));
+                case "tact" -> {
+                    try {
+                        breakpoints.onTact(Long.parseLong(value) - 1);
+                    } catch (NumberFormatException ex) {
+                        throw wrongCondition(condition);
+                    }
+                }
+                default -> throw wrongCondition(condition);
+            }
+        }
+
+        return breakpoints;
+    }
+
+    private static int getId(Alphabet alphabet, String symbol, String condition) {
+        int id = alphabet.getId(symbol);
+        if (id == Alphabet.UNKNOWN) {
+            throw new WrongMachineParams(String.format(
+                    """
+                    Символ "%s" в точке останова "%s" отсутствует в алфавите:
+                    %s
+                    """,
+                    symbol, condition, alphabet
+            ));
+        }
+
+        return id;
+    }
+
+    private static WrongMachineParams wrongCondition(String condition) {
+        return new WrongMachineParams(String.format(
+                """
+                Неверная точка останова: "%s"
+                Допустимые условия: state:<состояние>, input:<вход>, output:<выход>, tact:<номер>, <состояние>+<вход>
+                """,
+                condition
+        ));
+    }
+
+    /**
+     * Остановка после перехода в состояние {@code state}.
+     */
+    public Breakpoints onState(int state) {
+        forEachCell((cell, nextState, output) -> nextState == state);
+        return this;
+    }
+
+    public Breakpoints onInput(int input) {
+        int inputsCount = compiledMachine.getInputsCount();
+        forEachCell((cell, nextState, output) -> cell % inputsCount == input);
+        return this;
+    }
+
+    public Breakpoints onOutput(int output) {
+        forEachCell((cell, nextState, cellOutput) -> cellOutput == output);
+        return this;
+    }
+
+    public Breakpoints onTransition(int state, int input) {
+        int inputsCount = compiledMachine.getInputsCount();
+        forEachCell((cell, nextState, output) -> cell == state * inputsCount + input);
+        return this;
+    }
+
+    /**
+     * Остановка после такта с номером {@code tact} (нумерация как в процессе,
+     * первый шаг — такт 1).
+     */
+    public Breakpoints onTact(long tact) {
+        int index = Arrays.binarySearch(tacts, tact);
+        if (index < 0) {
+            index = -index - 1;
+            long[] extended = new long[tacts.length + 1];
+            System.arraycopy(tacts, 0, extended, 0, index);
+            extended[index] = tact;
+            System.arraycopy(tacts, index, extended, index + 1, tacts.length - index);
+            tacts = extended;
+        }
+
+        empty = false;
+        return this;
+    }
+
+    private void forEachCell(CellCondition condition) {
+        int inputsCount = compiledMachine.getInputsCount();
+        int cells = compiledMachine.getStatesCount() * inputsCount;
+
+        for (int cell = 0; cell < cells; cell++) {
+            int nextState = compiledMachine.getNextState(cell / inputsCount, cell % inputsCount);
+            if (nextState == CompiledMachine.UNDEFINED) {
+                continue;
+            }
+
+            int output = compiledMachine.getOutput(cell / inputsCount, cell % inputsCount);
+            if (condition.test(cell, nextState, output)) {
+                stopCells[cell >>> 6] |= 1L << cell;
+            }
+        }
+
+        empty = false;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public CompiledMachine getCompiledMachine() {
+        return compiledMachine;
+    }
+
+    long[] getStopCells() {
+        return stopCells;
+    }
+
+    boolean isStopCell(int state, int input) {
+        int cell = state * compiledMachine.getInputsCount() + input;
+        return (stopCells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Ближайший такт останова не раньше {@code tact} или -1.
+     */
+    long nextTact(long tact) {
+        int index = Arrays.binarySearch(tacts, tact);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        return (index < tacts.length) ? tacts[index] : -1;
+    }
+
+    @FunctionalInterface
+    private interface CellCondition {
+
+        boolean test(int cell, int nextState, int output);
+    }
+}
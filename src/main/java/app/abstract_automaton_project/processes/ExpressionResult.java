@@ -0,0 +1,14 @@
+package app.abstract_automaton_project.processes;
+
+/**
+ * Итог прогона сжатой записи входа: номер конечного состояния, число
+ * обработанных тактов, такт ошибки (-1, если ошибки не было), номера
+ * последних входа и выхода и, по запросу, сколько раз был выдан каждый выход.
+ */
+public record ExpressionResult(int finalState, long processedCount, long failedTact, RunStatus status,
+                               int lastInput, int lastOutput, long[] outputCounts) {
+
+    public boolean isCompleted() {
+        return status == RunStatus.COMPLETED;
+    }
+}
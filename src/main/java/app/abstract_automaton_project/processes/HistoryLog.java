@@ -0,0 +1,207 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.Alphabet;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Последовательность номеров символов одного вида (входы, состояния или
+ * выходы), хранимая по правилам {@link HistoryPolicy} в массиве {@code int[]}.
+ * Имена символов восстанавливаются по алфавиту только при чтении.
+ * <p>
+ * Полная и выборочная история хранится цепочкой сегментов, которые после
+ * {@link #fork()} разделяются между ветвями: дописывать в сегмент на месте
+ * может только создавший его журнал, остальные ветви начинают свой сегмент.
+ * Поэтому копия журнала стоит O(1), а общий префикс хранится один раз.
+ * Кольцевой буфер {@link HistoryPolicy.Kind#LAST} при копировании
+ * дублируется (его размер ограничен).
+ */
+final class HistoryLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final HistoryPolicy policy;
+
+    private final int limit;
+
+    private final Object owner = new Object();
+
+    private int[] ring;
+
+    private int head;
+
+    private Segment tail;
+
+    private Segment[] path;
+
+    private int size;
+
+    /**
+     * @param extra сколько дополнительных элементов хранить сверх размера
+     *              окна {@link HistoryPolicy.Kind#LAST} (для состояний это
+     *              состояние перед первым тактом окна)
+     */
+    HistoryLog(HistoryPolicy policy, int extra) {
+        this.policy = policy;
+        this.limit = (policy.getKind() == HistoryPolicy.Kind.LAST)
+                ? policy.getSize() + extra
+                : Integer.MAX_VALUE;
+
+        clear();
+    }
+
+    private HistoryLog(HistoryLog source) {
+        this.policy = source.policy;
+        this.limit = source.limit;
+        this.ring = (source.ring != null) ? source.ring.clone() : null;
+        this.head = source.head;
+        this.tail = source.tail;
+        this.path = source.path;
+        this.size = source.size;
+    }
+
+    HistoryLog fork() {
+        return new HistoryLog(this);
+    }
+
+    void add(long tact, int item) {
+        switch (policy.getKind()) {
+            case NONE -> {
+                return;
+            }
+            case SAMPLED -> {
+                if (tact % policy.getSize() != 0) {
+                    return;
+                }
+            }
+            case LAST -> {
+                addToRing(item);
+                return;
+            }
+            default -> {
+            }
+        }
+
+        int index = size - tail.offset;
+        if (tail.owner != owner) {
+            tail = new Segment(tail, size, owner, new int[INITIAL_CAPACITY]);
+            path = null;
+            index = 0;
+        } else if (index == tail.items.length) {
+            tail = new Segment(tail.parent, tail.offset, owner,
+                    Arrays.copyOf(tail.items, (int) Math.min(MAX_CAPACITY, (long) index * 2)));
+            path = null;
+        }
+
+        tail.items[index] = item;
+        size++;
+    }
+
+    private void addToRing(int item) {
+        if (size == limit) {
+            ring[head] = item;
+            head = (head + 1) % limit;
+            return;
+        }
+
+        if (size == ring.length) {
+            ring = Arrays.copyOf(ring, (int) Math.min(limit, (long) ring.length * 2));
+        }
+        ring[size++] = item;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        path = null;
+
+        if (policy.getKind() == HistoryPolicy.Kind.LAST) {
+            ring = new int[Math.min(limit, INITIAL_CAPACITY)];
+        } else {
+            tail = new Segment(null, 0, owner, new int[INITIAL_CAPACITY]);
+        }
+    }
+
+    int get(int index) {
+        if (ring != null) {
+            return ring[(head + index) % ring.length];
+        }
+        if (index >= tail.offset) {
+            return tail.items[index - tail.offset];
+        }
+
+        Segment[] segments = getPath();
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments[middle].offset <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return segments[low].items[index - segments[low].offset];
+    }
+
+    private Segment[] getPath() {
+        if (path == null) {
+            int depth = 0;
+            for (Segment segment = tail; segment != null; segment = segment.parent) {
+                depth++;
+            }
+
+            path = new Segment[depth];
+            for (Segment segment = tail; segment != null; segment = segment.parent) {
+                path[--depth] = segment;
+            }
+        }
+
+        return path;
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<String> view(Alphabet alphabet) {
+        return new View(alphabet);
+    }
+
+    /**
+     * Участок истории, начинающийся с такта {@code offset}. Для ветви, которая
+     * его не создавала, участок заканчивается там, где начинается ее
+     * следующий сегмент.
+     */
+    private record Segment(Segment parent, int offset, Object owner, int[] items) {
+    }
+
+    private final class View extends AbstractList<String> implements RandomAccess {
+
+        private final Alphabet alphabet;
+
+        private View(Alphabet alphabet) {
+            this.alphabet = alphabet;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return alphabet.getSymbol(HistoryLog.this.get(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package app.abstract_automaton_project.processes;
+
+/**
+ * Политика хранения истории процесса, задается при его создании.
+ * <ul>
+ *     <li>{@link Kind#NONE} — история не хранится;</li>
+ *     <li>{@link Kind#LAST} — хранятся последние N тактов (кольцевой буфер);</li>
+ *     <li>{@link Kind#SAMPLED} — хранится каждый k-й такт;</li>
+ *     <li>{@link Kind#FULL} — хранится вся история.</li>
+ * </ul>
+ */
+public final class HistoryPolicy {
+
+    public enum Kind {
+        NONE,
+        LAST,
+        SAMPLED,
+        FULL
+    }
+
+    private static final HistoryPolicy NONE = new HistoryPolicy(Kind.NONE, 0);
+
+    private static final HistoryPolicy FULL = new HistoryPolicy(Kind.FULL, 1);
+
+    private final Kind kind;
+
+    private final int size;
+
+    private HistoryPolicy(Kind kind, int size) {
+        this.kind = kind;
+        this.size = size;
+    }
+
+    public static HistoryPolicy none() {
+        return NONE;
+    }
+
+    public static HistoryPolicy full() {
+        return FULL;
+    }
+
+    public static HistoryPolicy last(int tacts) {
+        if (tacts <= 0) {
+            throw new IllegalArgumentException("Размер буфера истории должен быть положительным: " + tacts);
+        }
+
+        return new HistoryPolicy(Kind.LAST, tacts);
+    }
+
+    public static HistoryPolicy everyKth(int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Шаг выборки истории должен быть положительным: " + step);
+        }
+
+        return (step == 1) ? FULL : new HistoryPolicy(Kind.SAMPLED, step);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Число хранимых тактов для {@link Kind#LAST} или шаг выборки для {@link Kind#SAMPLED}.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isRetaining() {
+        return kind != Kind.NONE;
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case NONE -> "NONE";
+            case LAST -> "LAST(" + size + ")";
+            case SAMPLED -> "SAMPLED(" + size + ")";
+            case FULL -> "FULL";
+        };
+    }
+}
@@ -0,0 +1,439 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Сжатая запись входной последовательности: сигналы через запятую, группы в
+ * скобках и степени, например {@code (x0,x1)^1000000,x2}.
+ * <pre>
+ * sequence := term (',' term)*
+ * term     := atom ('^' number)?
+ * atom     := name | '(' sequence ')'
+ * </pre>
+ * Конечное состояние считается композицией действий фрагментов с
+ * возведением в степень, то есть за O(log n) композиций вместо n шагов.
+ */
+public final class InputExpression {
+
+    private static final Pattern SYNTAX_PATTERN = Pattern.compile(".*[()^].*");
+
+    private final Node root;
+
+    private final String text;
+
+    private InputExpression(Node root, String text) {
+        this.root = root;
+        this.text = text;
+    }
+
+    /**
+     * Является ли текст сжатой записью (а не простым перечислением через запятую).
+     */
+    public static boolean isCompressed(String text) {
+        return SYNTAX_PATTERN.matcher(text).matches();
+    }
+
+    public static InputExpression parse(String text) {
+        Parser parser = new Parser(text.replaceAll("\\s+", ""));
+        Node root = parser.parseSequence();
+
+        if (parser.position != parser.text.length()) {
+            throw parser.error("лишний символ");
+        }
+
+        return new InputExpression(root, text);
+    }
+
+    public long length() {
+        return root.length;
+    }
+
+    public String symbolAt(long offset) {
+        return root.symbolAt(offset);
+    }
+
+    /**
+     * Разворачивает сигналы с позиции {@code from} (включительно) по {@code to}
+     * (исключительно) в номера входов автомата.
+     */
+    public int[] expand(Alphabet transitions, long from, long to) {
+        int[] inputs = new int[Math.toIntExact(to - from)];
+        root.expand(transitions, from, to, inputs, 0);
+
+        return inputs;
+    }
+
+    public ExpressionResult evaluate(CompiledMachine compiledMachine, int startState, boolean withOutputCounts) {
+        StateTransformation transformation = new Evaluator(compiledMachine, withOutputCounts)
+                .transform(root, 0, root.length);
+
+        long failedTact = transformation.getFailOffset(startState);
+        long processed = (failedTact == -1) ? root.length : failedTact;
+
+        RunStatus status = RunStatus.COMPLETED;
+        if (failedTact != -1) {
+            status = compiledMachine.getTransitions().contains(symbolAt(failedTact))
+                    ? RunStatus.UNDEFINED_TRANSITION
+                    : RunStatus.UNKNOWN_INPUT;
+        }
+
+        return new ExpressionResult(
+                transformation.getStopState(startState),
+                processed,
+                failedTact,
+                status,
+                (processed == 0) ? CompiledMachine.UNDEFINED
+                        : compiledMachine.getTransitions().getId(symbolAt(processed - 1)),
+                transformation.getLastOutput(startState),
+                transformation.getOutputCounts(startState)
+        );
+    }
+
+    /**
+     * Действие первых {@code length} сигналов на состояния автомата.
+     */
+    StateTransformation transformPrefix(CompiledMachine compiledMachine, long length, boolean withOutputCounts) {
+        return new Evaluator(compiledMachine, withOutputCounts).transform(root, 0, length);
+    }
+
+    /**
+     * Сжатая запись сигналов с позиции {@code from} до конца; первым в ней
+     * идет сигнал {@link #symbolAt(long) symbolAt(from)}.
+     */
+    public String suffix(long from) {
+        StringBuilder builder = new StringBuilder();
+        if (from < root.length) {
+            root.appendSuffix(builder, from);
+        }
+
+        return builder.toString();
+    }
+
+    private static void appendTerm(StringBuilder builder, String term) {
+        if (!builder.isEmpty()) {
+            builder.append(',');
+        }
+        builder.append(term);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private abstract static class Node {
+
+        final long length;
+
+        Node(long length) {
+            this.length = length;
+        }
+
+        abstract String symbolAt(long offset);
+
+        abstract void expand(Alphabet transitions, long from, long to, int[] inputs, int offset);
+
+        /**
+         * Дописывает через запятую сжатую запись сигналов с позиции
+         * {@code from} ({@code from < length}) до конца узла.
+         */
+        abstract void appendSuffix(StringBuilder builder, long from);
+    }
+
+    private static final class SymbolNode extends Node {
+
+        final String name;
+
+        SymbolNode(String name) {
+            super(1);
+            this.name = name;
+        }
+
+        @Override
+        String symbolAt(long offset) {
+            return name;
+        }
+
+        @Override
+        void expand(Alphabet transitions, long from, long to, int[] inputs, int offset) {
+            if (from < to) {
+                inputs[offset] = transitions.getId(name);
+            }
+        }
+
+        @Override
+        void appendSuffix(StringBuilder builder, long from) {
+            appendTerm(builder, name);
+        }
+    }
+
+    private static final class GroupNode extends Node {
+
+        final List<Node> items;
+
+        GroupNode(List<Node> items) {
+            super(items.stream()
+                    .mapToLong(item -> item.length)
+                    .reduce(0, Math::addExact));
+            this.items = items;
+        }
+
+        @Override
+        String symbolAt(long offset) {
+            for (Node item: items) {
+                if (offset < item.length) {
+                    return item.symbolAt(offset);
+                }
+                offset -= item.length;
+            }
+
+            throw new IndexOutOfBoundsException(offset);
+        }
+
+        @Override
+        void expand(Alphabet transitions, long from, long to, int[] inputs, int offset) {
+            long start = 0;
+            for (Node item: items) {
+                long end = start + item.length;
+                if (end > from && start < to) {
+                    long itemFrom = Math.max(from, start) - start;
+                    long itemTo = Math.min(to, end) - start;
+                    item.expand(transitions, itemFrom, itemTo, inputs, offset);
+                    offset += (int) (itemTo - itemFrom);
+                }
+                start = end;
+            }
+        }
+
+        @Override
+        void appendSuffix(StringBuilder builder, long from) {
+            long start = 0;
+            for (Node item: items) {
+                long end = start + item.length;
+                if (end > from && item.length > 0) {
+                    item.appendSuffix(builder, Math.max(from, start) - start);
+                }
+                start = end;
+            }
+        }
+    }
+
+    private static final class PowerNode extends Node {
+
+        final Node base;
+
+        final long exponent;
+
+        PowerNode(Node base, long exponent) {
+            super(Math.multiplyExact(base.length, exponent));
+            this.base = base;
+            this.exponent = exponent;
+        }
+
+        @Override
+        String symbolAt(long offset) {
+            return base.symbolAt(offset % base.length);
+        }
+
+        @Override
+        void expand(Alphabet transitions, long from, long to, int[] inputs, int offset) {
+            while (from < to) {
+                long inner = from % base.length;
+                long innerTo = Math.min(base.length, inner + (to - from));
+                base.expand(transitions, inner, innerTo, inputs, offset);
+
+                offset += (int) (innerTo - inner);
+                from += innerTo - inner;
+            }
+        }
+
+        @Override
+        void appendSuffix(StringBuilder builder, long from) {
+            base.appendSuffix(builder, from % base.length);
+
+            long remaining = exponent - from / base.length - 1;
+            if (remaining == 1) {
+                base.appendSuffix(builder, 0);
+            } else if (remaining > 1) {
+                StringBuilder atom = new StringBuilder();
+                base.appendSuffix(atom, 0);
+                appendTerm(builder, (base instanceof SymbolNode) ? atom + "^" + remaining
+                        : "(" + atom + ")^" + remaining);
+            }
+        }
+    }
+
+    private static final class Evaluator {
+
+        private final CompiledMachine compiledMachine;
+
+        private final boolean withOutputCounts;
+
+        private final Map<String, StateTransformation> symbols;
+
+        private final Map<Node, StateTransformation> complete;
+
+        private Evaluator(CompiledMachine compiledMachine, boolean withOutputCounts) {
+            this.compiledMachine = compiledMachine;
+            this.withOutputCounts = withOutputCounts;
+            this.symbols = new HashMap<>();
+            this.complete = new IdentityHashMap<>();
+        }
+
+        StateTransformation transform(Node node, long from, long to) {
+            if (from >= to) {
+                return StateTransformation.identity(compiledMachine, withOutputCounts);
+            }
+            if (from == 0 && to == node.length) {
+                StateTransformation cached = complete.get(node);
+                if (cached == null) {
+                    cached = transformRange(node, from, to);
+                    complete.put(node, cached);
+                }
+                return cached;
+            }
+
+            return transformRange(node, from, to);
+        }
+
+        private StateTransformation transformRange(Node node, long from, long to) {
+            return switch (node) {
+                case SymbolNode symbol -> symbols.computeIfAbsent(symbol.name,
+                        name -> StateTransformation.symbol(compiledMachine,
+                                compiledMachine.getTransitions().getId(name), withOutputCounts));
+                case GroupNode group -> {
+                    StateTransformation result = null;
+                    long start = 0;
+                    for (Node item: group.items) {
+                        long end = start + item.length;
+                        if (end > from && start < to) {
+                            StateTransformation part = transform(item,
+                                    Math.max(from, start) - start, Math.min(to, end) - start);
+                            result = (result == null) ? part : result.then(part);
+                        }
+                        start = end;
+                    }
+                    yield result;
+                }
+                case PowerNode power -> {
+                    long baseLength = power.base.length;
+                    long firstRepetition = from / baseLength;
+                    long lastRepetition = (to - 1) / baseLength;
+
+                    if (firstRepetition == lastRepetition) {
+                        yield transform(power.base, from % baseLength, (to - 1) % baseLength + 1);
+                    }
+
+                    StateTransformation head = transform(power.base, from % baseLength, baseLength);
+                    StateTransformation tail = transform(power.base, 0, (to - 1) % baseLength + 1);
+                    long middle = lastRepetition - firstRepetition - 1;
+
+                    StateTransformation result = head;
+                    if (middle > 0) {
+                        result = result.then(transform(power.base, 0, baseLength).power(middle));
+                    }
+                    yield result.then(tail);
+                }
+                default -> throw new IllegalStateException(node.getClass().getName());
+            };
+        }
+    }
+
+    private static final class Parser {
+
+        private final String text;
+
+        private int position;
+
+        private Parser(String text) {
+            this.text = text;
+            this.position = 0;
+        }
+
+        private Node parseSequence() {
+            List<Node> items = new ArrayList<>();
+            if (position == text.length() || text.charAt(position) == ')') {
+                return new GroupNode(items);
+            }
+
+            items.add(parseTerm());
+            while (position < text.length() && text.charAt(position) == ',') {
+                position++;
+                if (position < text.length()) {
+                    items.add(parseTerm());
+                }
+            }
+
+            return (items.size() == 1) ? items.get(0) : new GroupNode(items);
+        }
+
+        private Node parseTerm() {
+            Node atom = parseAtom();
+
+            if (position < text.length() && text.charAt(position) == '^') {
+                position++;
+                String exponent = readWhile(Character::isDigit);
+                if (exponent.isEmpty()) {
+                    throw error("ожидается показатель степени");
+                }
+
+                try {
+                    return new PowerNode(atom, Long.parseLong(exponent));
+                } catch (ArithmeticException | NumberFormatException ex) {
+                    throw error("слишком длинная последовательность");
+                }
+            }
+
+            return atom;
+        }
+
+        private Node parseAtom() {
+            if (position < text.length() && text.charAt(position) == '(') {
+                position++;
+                Node sequence = parseSequence();
+                if (position >= text.length() || text.charAt(position) != ')') {
+                    throw error("ожидается \")\"");
+                }
+                position++;
+
+                return sequence;
+            }
+
+            String name = readWhile(symbol -> Character.isLetterOrDigit(symbol) || symbol == '_');
+            if (name.isEmpty()) {
+                throw error("ожидается входной сигнал");
+            }
+
+            return new SymbolNode(name);
+        }
+
+        private String readWhile(IntPredicate predicate) {
+            int start = position;
+            while (position < text.length() && predicate.test(text.charAt(position))) {
+                position++;
+            }
+
+            return text.substring(start, position);
+        }
+
+        private WrongMachineParams error(String reason) {
+            return new WrongMachineParams(String.format(
+                    """
+                    Ошибка разбора входной последовательности: %s.
+                    Позиция: %d
+                    """,
+                    reason, position + 1
+            ));
+        }
+    }
+}
@@ -0,0 +1,596 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.StepException;
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+import app.abstract_automaton_project.machines.Machine;
+
+import java.util.Arrays;
+import java.util.List;
+
+public abstract class MachineProcess implements MachineProcessInterface {
+
+    private static final int EXPANSION_CHUNK = 1 << 16;
+
+    private final Machine machine;
+
+    protected final CompiledMachine compiledMachine;
+
+    private final HistoryPolicy historyPolicy;
+
+    private final HistoryLog results;
+
+    private final HistoryLog conditionsHistory;
+
+    private final HistoryLog inputsHistory;
+
+    private int currentState;
+
+    private int lastInput;
+
+    private int lastResult;
+
+    private long tact;
+
+    private RunStatus errorStatus;
+
+    private int errorState;
+
+    private String errorInput;
+
+    private StepObservers observers;
+
+    private ProcessStatistics statistics;
+
+    private TraceIndex traceIndex;
+
+    protected MachineProcess(Machine machine, HistoryPolicy historyPolicy) {
+        this.machine = machine;
+        this.compiledMachine = machine.getCompiledMachine();
+        this.historyPolicy = historyPolicy;
+        this.results = new HistoryLog(historyPolicy, 0);
+        this.conditionsHistory = new HistoryLog(historyPolicy, 1);
+        this.inputsHistory = new HistoryLog(historyPolicy, 0);
+        this.currentState = compiledMachine.getStartState();
+        this.lastInput = CompiledMachine.UNDEFINED;
+        this.lastResult = CompiledMachine.UNDEFINED;
+
+        conditionsHistory.add(tact, currentState);
+    }
+
+    /**
+     * Копия процесса в текущем такте. История не копируется, а разделяется
+     * с исходным процессом (см. {@link HistoryLog#fork()}). Статистика и
+     * индекс тактов копируются и дальше ведутся отдельно; наблюдатели,
+     * добавленные к исходному процессу, к копии не подключаются.
+     */
+    protected MachineProcess(MachineProcess source) {
+        this.machine = source.machine;
+        this.compiledMachine = source.compiledMachine;
+        this.historyPolicy = source.historyPolicy;
+        this.results = source.results.fork();
+        this.conditionsHistory = source.conditionsHistory.fork();
+        this.inputsHistory = source.inputsHistory.fork();
+        this.currentState = source.currentState;
+        this.lastInput = source.lastInput;
+        this.lastResult = source.lastResult;
+        this.tact = source.tact;
+        this.errorStatus = source.errorStatus;
+        this.errorState = source.errorState;
+        this.errorInput = source.errorInput;
+
+        if (source.statistics != null) {
+            this.statistics = new ProcessStatistics(source.statistics);
+            getObservers().add(statistics);
+        }
+        if (source.traceIndex != null) {
+            this.traceIndex = new TraceIndex(source.traceIndex);
+            getObservers().add(traceIndex);
+        }
+    }
+
+    @Override
+    public void step(String input) {
+        RunStatus status = tryStep(input);
+        if (status != RunStatus.COMPLETED) {
+            String state = compiledMachine.getConditions().getSymbol(currentState);
+            throw new StepException(() -> describeError(status, state, input));
+        }
+    }
+
+    @Override
+    public RunStatus tryStep(String input) {
+        int inputId = compiledMachine.getTransitions().getId(input);
+        RunStatus status = tryStep(inputId);
+        if (status != RunStatus.COMPLETED) {
+            errorInput = input;
+        }
+
+        return status;
+    }
+
+    @Override
+    public RunStatus tryStep(int input) {
+        if (input < 0 || input >= compiledMachine.getInputsCount()) {
+            return fail(RunStatus.UNKNOWN_INPUT, input);
+        }
+
+        int nextState = compiledMachine.getNextState(currentState, input);
+        if (nextState == CompiledMachine.UNDEFINED) {
+            return fail(RunStatus.UNDEFINED_TRANSITION, input);
+        }
+
+        int output = compiledMachine.getOutput(currentState, input);
+        currentState = nextState;
+        errorStatus = null;
+
+        appendHistory(input, nextState, output);
+        if (observers != null) {
+            observers.step(tact, input, nextState, output);
+        }
+        return RunStatus.COMPLETED;
+    }
+
+    private RunStatus fail(RunStatus status, int input) {
+        if (observers != null) {
+            observers.error(tact + 1, input, currentState, status);
+        }
+
+        errorStatus = status;
+        errorState = currentState;
+        errorInput = (status == RunStatus.UNKNOWN_INPUT)
+                ? String.valueOf(input)
+                : compiledMachine.getTransitions().getSymbol(input);
+
+        return status;
+    }
+
+    @Override
+    public String getLastErrorMessage() {
+        if (errorStatus == null) {
+            return null;
+        }
+
+        return describeError(errorStatus, compiledMachine.getConditions().getSymbol(errorState), errorInput);
+    }
+
+    private String describeError(RunStatus status, String state, String input) {
+        if (status == RunStatus.UNKNOWN_INPUT) {
+            return String.format(
+                    """
+                    Заданное входное значение отсутствуют в списке входных сигналов:
+                    %s
+                    Известные входные сигналы:
+                    %s
+                    """,
+                    input,
+                    compiledMachine.getTransitions()
+            );
+        }
+
+        return String.format(
+                """
+                Заданный переход невозможен. Отсутствует дальнейшее состояние в матрице переходов.
+                "%s" + "%s" -> "%s"
+                """,
+                state, input, "-"
+        );
+    }
+
+    @Override
+    public RunResult runAll(int[] inputs) {
+        return run(inputs, null, historyPolicy.isRetaining());
+    }
+
+    @Override
+    public RunResult runAll(String[] inputs) {
+        RunResult result = MachineProcessInterface.super.runAll(inputs);
+        if (result.status() == RunStatus.UNKNOWN_INPUT) {
+            errorInput = inputs[result.failedIndex()];
+        }
+
+        return result;
+    }
+
+    @Override
+    public RunResult runUntil(int[] inputs, Breakpoints breakpoints) {
+        return run(inputs, breakpoints.isEmpty() ? null : breakpoints, historyPolicy.isRetaining());
+    }
+
+    @Override
+    public RunResult runUntil(List<String> inputs, Breakpoints breakpoints) {
+        RunResult result = MachineProcessInterface.super.runUntil(inputs, breakpoints);
+        if (result.status() == RunStatus.UNKNOWN_INPUT) {
+            errorInput = inputs.get(result.failedIndex());
+        }
+
+        return result;
+    }
+
+    /**
+     * При {@code retaining == false} такты не попадают в историю, но
+     * наблюдатели получают их как обычно.
+     */
+    private RunResult run(int[] inputs, Breakpoints breakpoints, boolean retaining) {
+        int[] states = (retaining || observers != null || breakpoints != null) ? new int[inputs.length] : null;
+        int[] outputs = new int[inputs.length];
+
+        long firstTact = tact + 1;
+        int startState = currentState;
+        int to = inputs.length;
+        long run;
+        if (breakpoints == null) {
+            run = compiledMachine.run(currentState, inputs, 0, to, states, outputs);
+        } else {
+            long breakTact = breakpoints.nextTact(firstTact);
+            if (breakTact != -1 && breakTact - firstTact < to) {
+                to = (int) (breakTact - firstTact + 1);
+            }
+            run = compiledMachine.runUntil(currentState, inputs, 0, to, states, outputs,
+                    breakpoints.getStopCells());
+        }
+        int processed = CompiledMachine.stopIndex(run);
+        currentState = CompiledMachine.stopState(run);
+
+        if (retaining) {
+            for (int i = 0; i < processed; i++) {
+                appendHistory(inputs[i], states[i], outputs[i]);
+            }
+        } else if (processed > 0) {
+            tact += processed;
+            lastInput = inputs[processed - 1];
+            lastResult = outputs[processed - 1];
+        }
+
+        RunResult result = (isBreakpoint(breakpoints, inputs, processed, to, startState, states))
+                ? RunResult.breakpoint(currentState, outputs, processed)
+                : RunResult.of(compiledMachine, inputs, run, outputs);
+        if (observers != null) {
+            observers.steps(firstTact, inputs, states, outputs, processed);
+        }
+        if (!result.isCompleted() && result.status() != RunStatus.BREAKPOINT) {
+            fail(result.status(), inputs[processed]);
+        } else {
+            errorStatus = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Остановился ли прогон на точке останова: по номеру такта (дошли до
+     * ограничения {@code to}, меньшего длины входа) или по ячейке последнего
+     * выполненного такта.
+     */
+    private static boolean isBreakpoint(Breakpoints breakpoints, int[] inputs, int processed, int to,
+                                        int startState, int[] states) {
+        if (breakpoints == null || processed == inputs.length) {
+            return false;
+        }
+        if (processed == to) {
+            return true;
+        }
+
+        return processed > 0 && breakpoints.isStopCell(
+                (processed == 1) ? startState : states[processed - 2], inputs[processed - 1]);
+    }
+
+    /**
+     * Повторения, которые политика истории все равно не сохранит, пропускаются
+     * через {@link PeriodicSimulation}; пошагово прогоняется только хвост,
+     * попадающий в хранимую историю. Пропущенные такты сообщаются
+     * наблюдателям одним вызовом {@link StepListener#onSkip}, если все они на
+     * это согласны, а иначе прогоняются пошагово без записи в историю. Пустой
+     * период процесс не меняет.
+     */
+    @Override
+    public PeriodicResult runRepeated(int[] period, long repetitions) {
+        PeriodicResult result = PeriodicSimulation.run(compiledMachine, currentState, period, repetitions);
+        if (period.length == 0) {
+            return result;
+        }
+
+        long executed = result.isCompleted()
+                ? repetitions
+                : result.getFailedTact() / period.length + 1;
+        long tail = switch (historyPolicy.getKind()) {
+            case NONE -> 1;
+            case LAST -> (historyPolicy.getSize() + period.length) / period.length + 1;
+            case SAMPLED, FULL -> executed;
+        };
+        long skipped = Math.max(0, executed - tail);
+        boolean skipping = observers == null || observers.acceptSkips();
+        checkSteppedLength(saturatedMultiply(skipping ? executed - skipped : executed, period.length),
+                saturatedMultiply(repetitions, period.length));
+
+        if (skipped > 0 && !skipping) {
+            stepRepeated(period, skipped);
+        } else if (skipped > 0) {
+            long firstTact = tact + 1;
+            currentState = result.getEntryState(skipped);
+            tact += skipped * period.length;
+            if (observers != null) {
+                observers.skip(firstTact, skipped * period.length, currentState, result.getOutputCounts(skipped));
+            }
+        }
+        for (long repetition = skipped; repetition < executed; repetition++) {
+            if (!runAll(period).isCompleted()) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Прогоняет {@code repetitions} целых повторений периода пошагово для
+     * наблюдателей, не записывая их в историю.
+     */
+    private void stepRepeated(int[] period, long repetitions) {
+        int perChunk = Math.max(1, EXPANSION_CHUNK / period.length);
+        int[] chunk = new int[(int) Math.min(repetitions, perChunk) * period.length];
+        for (int offset = 0; offset < chunk.length; offset += period.length) {
+            System.arraycopy(period, 0, chunk, offset, period.length);
+        }
+
+        for (long done = 0; done < repetitions; done += perChunk) {
+            int count = (int) Math.min(perChunk, repetitions - done);
+            run((count * period.length == chunk.length) ? chunk : Arrays.copyOf(chunk, count * period.length),
+                    null, false);
+        }
+    }
+
+    /**
+     * Конечное состояние считается композицией действий фрагментов записи;
+     * развертываются и прогоняются пошагово только такты, попадающие в
+     * хранимую историю. Пропущенные такты сообщаются наблюдателям одним
+     * вызовом {@link StepListener#onSkip} с гистограммой их выходов, если все
+     * они на это согласны, а иначе развертываются для них по частям без
+     * записи в историю.
+     */
+    @Override
+    public ExpressionResult runExpression(InputExpression expression) {
+        boolean skipping = observers == null || observers.acceptSkips();
+        boolean countingOutputs = skipping && observers != null;
+        ExpressionResult result = expression.evaluate(compiledMachine, currentState,
+                countingOutputs && historyPolicy.getKind() == HistoryPolicy.Kind.NONE);
+        long processed = result.processedCount();
+        long tail = switch (historyPolicy.getKind()) {
+            case NONE -> 0;
+            case LAST -> Math.min(processed, historyPolicy.getSize() + 1);
+            case SAMPLED, FULL -> processed;
+        };
+
+        checkSteppedLength(skipping ? tail : processed, expression.length());
+
+        long skipped = processed - tail;
+        if (skipped > 0 && !skipping) {
+            for (long from = 0; from < skipped; from += EXPANSION_CHUNK) {
+                run(expression.expand(compiledMachine.getTransitions(), from,
+                        Math.min(skipped, from + EXPANSION_CHUNK)), null, false);
+            }
+        } else if (skipped > 0) {
+            int stopState = result.finalState();
+            long[] outputCounts = result.outputCounts();
+            if (tail > 0) {
+                StateTransformation prefix = expression.transformPrefix(compiledMachine, skipped, countingOutputs);
+                stopState = prefix.getStopState(currentState);
+                outputCounts = prefix.getOutputCounts(currentState);
+            }
+            if (observers != null) {
+                observers.skip(tact + 1, skipped, stopState, outputCounts);
+            }
+
+            currentState = stopState;
+            tact += skipped;
+            if (tail == 0) {
+                lastInput = result.lastInput();
+                lastResult = result.lastOutput();
+            }
+        }
+        for (long from = skipped; from < processed; from += EXPANSION_CHUNK) {
+            runAll(expression.expand(compiledMachine.getTransitions(), from,
+                    Math.min(processed, from + EXPANSION_CHUNK)));
+        }
+        if (result.isCompleted()) {
+            errorStatus = null;
+        } else {
+            String symbol = expression.symbolAt(processed);
+            fail(result.status(), compiledMachine.getTransitions().getId(symbol));
+            errorInput = symbol;
+        }
+
+        return result;
+    }
+
+    /**
+     * Такты, которые попадают в историю или нужны наблюдателям, прогоняются
+     * пошагово; при выборочной и полной истории это все такты, и сжатая
+     * запись вида {@code (x)^n} не должна превращаться в бесконечный прогон.
+     * Полная история к тому же индексируется {@code int}.
+     */
+    private void checkSteppedLength(long steppedTacts, long length) {
+        long limit = (historyPolicy.getKind() == HistoryPolicy.Kind.FULL)
+                ? Integer.MAX_VALUE - tact
+                : Integer.MAX_VALUE;
+        if (steppedTacts >= limit) {
+            throw new WrongMachineParams(String.format(
+                    """
+                    Последовательность слишком длинная для пошагового прогона.
+                    Ее такты нужны истории процесса (%s) или наблюдателям (статистике, индексу тактов).
+                    Длина последовательности: %d
+                    """,
+                    historyPolicy,
+                    length
+            ));
+        }
+    }
+
+    private static long saturatedMultiply(long count, int length) {
+        return (count > Long.MAX_VALUE / length) ? Long.MAX_VALUE : count * length;
+    }
+
+    @Override
+    public void addStepListener(StepListener listener) {
+        getObservers().add(listener);
+    }
+
+    @Override
+    public void addStepBatchListener(StepBatchListener listener, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным: " + batchSize);
+        }
+
+        getObservers().add(listener, batchSize);
+    }
+
+    @Override
+    public void removeStepListener(StepListener listener) {
+        if (observers != null) {
+            observers.remove(listener);
+            if (observers.isEmpty()) {
+                observers = null;
+            }
+        }
+    }
+
+    @Override
+    public void removeStepBatchListener(StepBatchListener listener) {
+        if (observers != null) {
+            observers.remove(listener);
+            if (observers.isEmpty()) {
+                observers = null;
+            }
+        }
+    }
+
+    @Override
+    public void flushStepListeners() {
+        if (observers != null) {
+            observers.flush();
+        }
+    }
+
+    @Override
+    public ProcessStatistics enableStatistics() {
+        if (statistics == null) {
+            statistics = new ProcessStatistics(compiledMachine, currentState);
+            addStepListener(statistics);
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public ProcessStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public TraceIndex enableTraceIndex() {
+        if (traceIndex == null) {
+            traceIndex = new TraceIndex(compiledMachine, tact, currentState);
+            addStepListener(traceIndex);
+        }
+
+        return traceIndex;
+    }
+
+    @Override
+    public TraceIndex getTraceIndex() {
+        return traceIndex;
+    }
+
+    private StepObservers getObservers() {
+        if (observers == null) {
+            observers = new StepObservers();
+        }
+
+        return observers;
+    }
+
+    private void appendHistory(int input, int state, int output) {
+        tact++;
+        lastInput = input;
+        lastResult = output;
+
+        conditionsHistory.add(tact, state);
+        results.add(tact, output);
+        inputsHistory.add(tact, input);
+    }
+
+    public int getCurrentState() {
+        return currentState;
+    }
+
+    public HistoryPolicy getHistoryPolicy() {
+        return historyPolicy;
+    }
+
+    @Override
+    public String getLastResult() {
+        if (lastResult == CompiledMachine.UNDEFINED) {
+            return "-";
+        }
+
+        return compiledMachine.getResults().getSymbol(lastResult);
+    }
+
+    @Override
+    public List<String> getAllResults() {
+        return results.view(compiledMachine.getResults());
+    }
+
+    @Override
+    public String getLastConditionFromHistory() {
+        return compiledMachine.getConditions().getSymbol(currentState);
+    }
+
+    @Override
+    public List<String> getAllConditionsFromHistory() {
+        return conditionsHistory.view(compiledMachine.getConditions());
+    }
+
+    @Override
+    public List<String> getInputsHistory() {
+        return inputsHistory.view(compiledMachine.getTransitions());
+    }
+
+    @Override
+    public String getLastInput() {
+        if (lastInput == CompiledMachine.UNDEFINED) {
+            return "-";
+        }
+
+        return compiledMachine.getTransitions().getSymbol(lastInput);
+    }
+
+    @Override
+    public void clearProcess() {
+        currentState = compiledMachine.getStartState();
+        lastInput = CompiledMachine.UNDEFINED;
+        lastResult = CompiledMachine.UNDEFINED;
+        tact = 0;
+        errorStatus = null;
+
+        results.clear();
+        conditionsHistory.clear();
+        conditionsHistory.add(tact, currentState);
+        inputsHistory.clear();
+
+        if (observers != null) {
+            observers.reset(currentState);
+        }
+    }
+
+    @Override
+    public long getTactNumber() {
+        return tact + 1;
+    }
+
+    @Override
+    public Machine getMachine() {
+        return machine;
+    }
+}
@@ -1,5 +1,6 @@
 package app.abstract_automaton_project.processes;
 
+import app.abstract_automaton_project.machines.Alphabet;
 import app.abstract_automaton_project.machines.Machine;
 
 import java.util.List;
@@ -8,6 +9,80 @@ public interface MachineProcessInterface {
 
     void step(String input);
 
+    /**
+     * Шаг без исключений: при ошибке состояние процесса не меняется, а
+     * возвращается ее вид. Текст ошибки формируется только по запросу
+     * {@link #getLastErrorMessage()}.
+     */
+    RunStatus tryStep(String input);
+
+    RunStatus tryStep(int input);
+
+    /**
+     * Текст ошибки последнего неудачного шага или прогона ({@code runAll},
+     * {@code runUntil}, {@code runRepeated}, {@code runExpression}) или
+     * {@code null}, если последний шаг или прогон был успешным.
+     */
+    String getLastErrorMessage();
+
+    RunResult runAll(int[] inputs);
+
+    default RunResult runAll(String[] inputs) {
+        Alphabet transitions = getMachine().getTransitionsAlphabet();
+
+        int[] inputIds = new int[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            inputIds[i] = transitions.getId(inputs[i]);
+        }
+
+        return runAll(inputIds);
+    }
+
+    default RunResult runAll(List<String> inputs) {
+        return runAll(inputs.toArray(String[]::new));
+    }
+
+    /**
+     * Пакетный прогон до первой сработавшей точки останова (статус
+     * {@link RunStatus#BREAKPOINT}), ошибки или конца входа.
+     */
+    RunResult runUntil(int[] inputs, Breakpoints breakpoints);
+
+    default RunResult runUntil(List<String> inputs, Breakpoints breakpoints) {
+        Alphabet transitions = getMachine().getTransitionsAlphabet();
+
+        int[] inputIds = new int[inputs.size()];
+        for (int i = 0; i < inputIds.length; i++) {
+            inputIds[i] = transitions.getId(inputs.get(i));
+        }
+
+        return runUntil(inputIds, breakpoints);
+    }
+
+    PeriodicResult runRepeated(int[] period, long repetitions);
+
+    default PeriodicResult runRepeated(List<String> period, long repetitions) {
+        Alphabet transitions = getMachine().getTransitionsAlphabet();
+
+        int[] inputIds = new int[period.size()];
+        for (int i = 0; i < inputIds.length; i++) {
+            inputIds[i] = transitions.getId(period.get(i));
+        }
+
+        return runRepeated(inputIds, repetitions);
+    }
+
+    /**
+     * Прогоняет сжатую запись входа (см. {@link InputExpression}). Такты,
+     * которые политика истории не сохранит, не моделируются пошагово;
+     * наблюдатели узнают о них из {@link StepListener#onSkip}.
+     */
+    ExpressionResult runExpression(InputExpression expression);
+
+    default ExpressionResult runExpression(String expression) {
+        return runExpression(InputExpression.parse(expression));
+    }
+
     String getLastResult();
 
     List<String> getAllResults();
@@ -22,11 +97,58 @@ public interface MachineProcessInterface {
 
     void clearProcess();
 
+    void addStepListener(StepListener listener);
+
+    /**
+     * Регистрирует наблюдателя, получающего шаги пачками по {@code batchSize}.
+     */
+    void addStepBatchListener(StepBatchListener listener, int batchSize);
+
+    void removeStepListener(StepListener listener);
+
+    void removeStepBatchListener(StepBatchListener listener);
+
+    /**
+     * Включает накопление статистики с текущего такта (повторный вызов
+     * возвращает уже накапливаемую статистику). Работает при любой политике
+     * хранения истории.
+     */
+    ProcessStatistics enableStatistics();
+
+    /**
+     * Накопленная статистика или {@code null}, если она не включена.
+     */
+    ProcessStatistics getStatistics();
+
+    /**
+     * Включает индекс тактов по состояниям, входам и выходам с текущего такта
+     * (повторный вызов возвращает уже построенный индекс).
+     */
+    TraceIndex enableTraceIndex();
+
+    /**
+     * Индекс тактов или {@code null}, если он не включен.
+     */
+    TraceIndex getTraceIndex();
+
+    /**
+     * Передает наблюдателям накопленные, но еще не переданные шаги.
+     */
+    void flushStepListeners();
+
+    /**
+     * Независимая копия процесса в текущем такте для исследования
+     * альтернативных продолжений. Общий префикс истории не копируется.
+     * Включенные статистика и индекс тактов переносятся в копию, наблюдатели
+     * шагов — нет.
+     */
+    MachineProcessInterface fork();
+
     String getMachineName();
 
     Machine getMachine();
 
-    default int getTactNumber() {
+    default long getTactNumber() {
         return getAllConditionsFromHistory().size();
     }
 }
\ No newline at end of file
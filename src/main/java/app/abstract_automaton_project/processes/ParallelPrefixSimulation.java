@@ -0,0 +1,172 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+import app.abstract_automaton_project.machines.Machine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Моделирование одной очень длинной входной последовательности на всех ядрах.
+ * <p>
+ * Вход делится на фрагменты. Для каждого фрагмента параллельно вычисляется
+ * отображение "состояние в начале → состояние в конце" (сразу для всех
+ * состояний; совпавшие траектории объединяются, поэтому после синхронизации
+ * автомата шаг стоит O(1)). Отображения композируются последовательно, после
+ * чего фрагменты параллельно прогоняются повторно с известных начальных
+ * состояний и заполняют выходы.
+ */
+public class ParallelPrefixSimulation {
+
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    public static RunResult run(Machine machine, String[] inputs) {
+        return run(machine, inputs, ForkJoinPool.commonPool());
+    }
+
+    public static RunResult run(Machine machine, String[] inputs, ForkJoinPool pool) {
+        Alphabet transitions = machine.getTransitionsAlphabet();
+        int[] inputIds = new int[inputs.length];
+        int chunkLength = getChunkLength(inputs.length, pool);
+
+        forEachChunk(pool, getChunksCount(inputs.length, chunkLength), chunk -> {
+            int to = Math.min(inputs.length, (chunk + 1) * chunkLength);
+            for (int i = chunk * chunkLength; i < to; i++) {
+                inputIds[i] = transitions.getId(inputs[i]);
+            }
+        });
+
+        return run(machine, inputIds, pool);
+    }
+
+    public static RunResult run(Machine machine, int[] inputs) {
+        return run(machine, inputs, ForkJoinPool.commonPool());
+    }
+
+    public static RunResult run(Machine machine, int[] inputs, ForkJoinPool pool) {
+        CompiledMachine compiledMachine = machine.getCompiledMachine();
+        int[] outputs = new int[inputs.length];
+
+        int chunkLength = getChunkLength(inputs.length, pool);
+        int chunksCount = getChunksCount(inputs.length, chunkLength);
+        if (chunksCount <= 1) {
+            long run = compiledMachine.run(compiledMachine.getStartState(), inputs, 0, inputs.length,
+                    null, outputs);
+            return RunResult.of(compiledMachine, inputs, run, outputs);
+        }
+
+        int[][] mappings = new int[chunksCount][];
+        forEachChunk(pool, chunksCount, chunk -> mappings[chunk] = getChunkMapping(compiledMachine, inputs,
+                chunk * chunkLength, Math.min(inputs.length, (chunk + 1) * chunkLength)));
+
+        int[] chunkStates = new int[chunksCount];
+        int replayCount = 0;
+        int state = compiledMachine.getStartState();
+        while (replayCount < chunksCount) {
+            chunkStates[replayCount] = state;
+            state = mappings[replayCount++][state];
+            if (state == CompiledMachine.UNDEFINED) {
+                break;
+            }
+        }
+
+        long[] runs = new long[replayCount];
+        forEachChunk(pool, replayCount, chunk -> runs[chunk] = compiledMachine.run(chunkStates[chunk], inputs,
+                chunk * chunkLength, Math.min(inputs.length, (chunk + 1) * chunkLength), null, outputs));
+
+        return RunResult.of(compiledMachine, inputs, runs[replayCount - 1], outputs);
+    }
+
+    /**
+     * Отображение состояний для фрагмента {@code inputs[from..to)}: для каждого
+     * начального состояния — конечное или {@link CompiledMachine#UNDEFINED}.
+     * Начальные состояния объединяются в классы с общим текущим состоянием,
+     * классы сливаются, когда их траектории совпадают.
+     */
+    private static int[] getChunkMapping(CompiledMachine compiledMachine, int[] inputs, int from, int to) {
+        int statesCount = compiledMachine.getStatesCount();
+        int inputsCount = compiledMachine.getInputsCount();
+
+        int[] classOf = new int[statesCount];
+        int[] classStates = new int[statesCount];
+        int[] nextClassStates = new int[statesCount];
+        int[] remap = new int[statesCount];
+        int[] stamps = new int[statesCount];
+        int[] stampedClasses = new int[statesCount];
+        Arrays.fill(stamps, -1);
+
+        for (int state = 0; state < statesCount; state++) {
+            classOf[state] = state;
+            classStates[state] = state;
+        }
+        int classesCount = statesCount;
+
+        for (int index = from; index < to; index++) {
+            if (classesCount == 1 && classStates[0] == CompiledMachine.UNDEFINED) {
+                break;
+            }
+
+            int input = inputs[index];
+            boolean validInput = input >= 0 && input < inputsCount;
+            int nextCount = 0;
+            int deadClass = -1;
+
+            for (int current = 0; current < classesCount; current++) {
+                int state = classStates[current];
+                int nextState = (validInput && state != CompiledMachine.UNDEFINED)
+                        ? compiledMachine.getNextState(state, input)
+                        : CompiledMachine.UNDEFINED;
+
+                if (nextState == CompiledMachine.UNDEFINED) {
+                    if (deadClass == -1) {
+                        deadClass = nextCount;
+                        nextClassStates[nextCount++] = CompiledMachine.UNDEFINED;
+                    }
+                    remap[current] = deadClass;
+                } else if (stamps[nextState] == index) {
+                    remap[current] = stampedClasses[nextState];
+                } else {
+                    stamps[nextState] = index;
+                    stampedClasses[nextState] = nextCount;
+                    nextClassStates[nextCount] = nextState;
+                    remap[current] = nextCount++;
+                }
+            }
+
+            if (nextCount != classesCount) {
+                for (int state = 0; state < statesCount; state++) {
+                    classOf[state] = remap[classOf[state]];
+                }
+            }
+
+            int[] swap = classStates;
+            classStates = nextClassStates;
+            nextClassStates = swap;
+            classesCount = nextCount;
+        }
+
+        int[] mapping = new int[statesCount];
+        for (int state = 0; state < statesCount; state++) {
+            mapping[state] = classStates[classOf[state]];
+        }
+
+        return mapping;
+    }
+
+    private static int getChunkLength(int length, ForkJoinPool pool) {
+        int chunks = Math.max(1, pool.getParallelism() * 4);
+        return Math.max(MIN_CHUNK_LENGTH, (length + chunks - 1) / chunks);
+    }
+
+    private static int getChunksCount(int length, int chunkLength) {
+        return (length + chunkLength - 1) / chunkLength;
+    }
+
+    private static void forEachChunk(ForkJoinPool pool, int chunksCount, IntConsumer action) {
+        pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, chunksCount).parallel().forEach(action)));
+    }
+}
@@ -0,0 +1,160 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+import java.util.Arrays;
+
+/**
+ * Итог прогона периодического входа. Хранит только состояния на входе в
+ * повторения до обнаружения цикла, поэтому состояние на входе в любое
+ * повторение, выходы отдельного повторения и суммарная гистограмма выходов
+ * восстанавливаются по запросу без пошагового прогона всех повторений.
+ */
+public final class PeriodicResult {
+
+    private final CompiledMachine compiledMachine;
+
+    private final int[] period;
+
+    private final long repetitions;
+
+    private final int[] entryStates;
+
+    private final int cycleStart;
+
+    private final int cycleLength;
+
+    private final int finalState;
+
+    private final long failedTact;
+
+    private final RunStatus status;
+
+    private long[] outputCounts;
+
+    PeriodicResult(CompiledMachine compiledMachine, int[] period, long repetitions, int[] entryStates,
+                   int cycleStart, int cycleLength, int finalState, long failedTact, RunStatus status) {
+        this.compiledMachine = compiledMachine;
+        this.period = period;
+        this.repetitions = repetitions;
+        this.entryStates = entryStates;
+        this.cycleStart = cycleStart;
+        this.cycleLength = cycleLength;
+        this.finalState = finalState;
+        this.failedTact = failedTact;
+        this.status = status;
+    }
+
+    public boolean isCompleted() {
+        return status == RunStatus.COMPLETED;
+    }
+
+    public RunStatus getStatus() {
+        return status;
+    }
+
+    public int getFinalState() {
+        return finalState;
+    }
+
+    /**
+     * Номер такта (с нуля), на котором прогон остановился, или -1.
+     */
+    public long getFailedTact() {
+        return failedTact;
+    }
+
+    public long getProcessedCount() {
+        return isCompleted() ? repetitions * period.length : failedTact;
+    }
+
+    public long getRepetitions() {
+        return repetitions;
+    }
+
+    /**
+     * Номер повторения, с которого начинается цикл состояний, или -1, если
+     * цикл не был обнаружен (повторений меньше, чем нужно для его появления,
+     * или прогон остановился на ошибке).
+     */
+    public int getCycleStart() {
+        return cycleStart;
+    }
+
+    public int getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * Состояние в начале повторения {@code repetition}
+     * ({@code 0 <= repetition <= } число выполненных повторений).
+     */
+    public int getEntryState(long repetition) {
+        if (repetition < entryStates.length) {
+            return entryStates[(int) repetition];
+        }
+        if (cycleStart == -1) {
+            return finalState;
+        }
+
+        return entryStates[(int) (cycleStart + (repetition - cycleStart) % cycleLength)];
+    }
+
+    public int[] getRepetitionOutputs(long repetition) {
+        int[] outputs = new int[period.length];
+        long run = compiledMachine.run(getEntryState(repetition), period, 0, period.length, null, outputs);
+
+        return Arrays.copyOf(outputs, CompiledMachine.stopIndex(run));
+    }
+
+    /**
+     * Сколько раз каждый выходной сигнал (по номеру) был выдан за весь прогон.
+     */
+    public long[] getOutputCounts() {
+        if (outputCounts == null) {
+            long executed = isCompleted() ? repetitions : failedTact / Math.max(1, period.length) + 1;
+            outputCounts = countOutputs(executed);
+        }
+
+        return outputCounts.clone();
+    }
+
+    /**
+     * Гистограмма выходов первых {@code repetitions} повторений (все они
+     * должны быть выполнены целиком).
+     */
+    long[] getOutputCounts(long repetitions) {
+        return countOutputs(repetitions);
+    }
+
+    private long[] countOutputs(long executed) {
+        long[] counts = new long[compiledMachine.getOutputsCount()];
+
+        long direct = (cycleStart == -1) ? executed : Math.min(executed, cycleStart);
+        for (long repetition = 0; repetition < direct; repetition++) {
+            addOutputs(counts, repetition, 1);
+        }
+        if (executed <= direct) {
+            return counts;
+        }
+
+        long inCycle = executed - cycleStart;
+        long fullCycles = inCycle / cycleLength;
+        long remainder = inCycle % cycleLength;
+        for (int offset = 0; offset < cycleLength; offset++) {
+            addOutputs(counts, cycleStart + offset, fullCycles + ((offset < remainder) ? 1 : 0));
+        }
+
+        return counts;
+    }
+
+    private void addOutputs(long[] counts, long repetition, long times) {
+        if (times == 0) {
+            return;
+        }
+
+        for (int output: getRepetitionOutputs(repetition)) {
+            counts[output] += times;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+import java.util.Arrays;
+
+/**
+ * Ускоренный прогон входа вида "период, повторенный N раз". Состояние на
+ * входе в очередное повторение однозначно определяет все дальнейшие такты,
+ * поэтому как только оно повторяется, оставшиеся повторения пропускаются
+ * аналитически: достаточно не более (число состояний + 1) прогонов периода.
+ */
+public class PeriodicSimulation {
+
+    public static PeriodicResult run(CompiledMachine compiledMachine, int startState,
+                                     int[] period, long repetitions) {
+        int limit = (int) Math.min(repetitions, compiledMachine.getStatesCount());
+        int[] entryStates = new int[limit + 1];
+        int[] seenAt = new int[compiledMachine.getStatesCount()];
+        Arrays.fill(seenAt, -1);
+
+        int state = startState;
+        for (int repetition = 0; ; repetition++) {
+            entryStates[repetition] = state;
+
+            if (repetition == repetitions) {
+                return new PeriodicResult(compiledMachine, period, repetitions,
+                        Arrays.copyOf(entryStates, repetition + 1), -1, 0,
+                        state, -1, RunStatus.COMPLETED);
+            }
+
+            if (seenAt[state] != -1) {
+                int cycleStart = seenAt[state];
+                int cycleLength = repetition - cycleStart;
+                int finalState = entryStates[(int) (cycleStart + (repetitions - cycleStart) % cycleLength)];
+
+                return new PeriodicResult(compiledMachine, period, repetitions,
+                        Arrays.copyOf(entryStates, repetition), cycleStart, cycleLength,
+                        finalState, -1, RunStatus.COMPLETED);
+            }
+            seenAt[state] = repetition;
+
+            long run = compiledMachine.run(state, period, 0, period.length, null, null);
+            int processed = CompiledMachine.stopIndex(run);
+            state = CompiledMachine.stopState(run);
+
+            if (processed != period.length) {
+                int failedInput = period[processed];
+                RunStatus status = (failedInput < 0 || failedInput >= compiledMachine.getInputsCount())
+                        ? RunStatus.UNKNOWN_INPUT
+                        : RunStatus.UNDEFINED_TRANSITION;
+
+                return new PeriodicResult(compiledMachine, period, repetitions,
+                        Arrays.copyOf(entryStates, repetition + 1), -1, 0,
+                        state, (long) repetition * period.length + processed, status);
+            }
+        }
+    }
+}
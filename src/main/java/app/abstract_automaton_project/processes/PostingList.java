@@ -0,0 +1,164 @@
+package app.abstract_automaton_project.processes;
+
+import java.util.Arrays;
+
+/**
+ * Возрастающий список номеров тактов, сжатый разностями в varint-кодировке.
+ * Список разбит на блоки по {@link #BLOCK_SIZE} элементов; первый такт
+ * каждого блока хранится отдельно, поэтому поиск — двоичный поиск блока и
+ * декодирование не более одного блока.
+ */
+final class PostingList {
+
+    private static final int BLOCK_SIZE = 64;
+
+    private long[] blockFirst = new long[4];
+
+    private int[] blockOffsets = new int[4];
+
+    private byte[] data = new byte[64];
+
+    private int dataSize;
+
+    private int size;
+
+    private long last;
+
+    PostingList() {
+    }
+
+    PostingList(PostingList source) {
+        this.blockFirst = source.blockFirst.clone();
+        this.blockOffsets = source.blockOffsets.clone();
+        this.data = source.data.clone();
+        this.dataSize = source.dataSize;
+        this.size = source.size;
+        this.last = source.last;
+    }
+
+    void add(long tact) {
+        if (size % BLOCK_SIZE == 0) {
+            int block = size / BLOCK_SIZE;
+            if (block == blockFirst.length) {
+                blockFirst = Arrays.copyOf(blockFirst, block * 2);
+                blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+            }
+            blockFirst[block] = tact;
+            blockOffsets[block] = dataSize;
+        } else {
+            writeVarLong(tact - last);
+        }
+
+        last = tact;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * {@code k}-й (с нуля) такт списка.
+     */
+    long get(int k) {
+        int block = k / BLOCK_SIZE;
+        long tact = blockFirst[block];
+        int offset = blockOffsets[block];
+
+        for (int i = block * BLOCK_SIZE; i < k; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte item;
+            do {
+                item = data[offset++];
+                delta |= (long) (item & 0x7F) << shift;
+                shift += 7;
+            } while (item < 0);
+            tact += delta;
+        }
+
+        return tact;
+    }
+
+    long[] toArray() {
+        long[] tacts = new long[size];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            if (i % BLOCK_SIZE == 0) {
+                tacts[i] = blockFirst[i / BLOCK_SIZE];
+                continue;
+            }
+
+            long delta = 0;
+            int shift = 0;
+            byte item;
+            do {
+                item = data[offset++];
+                delta |= (long) (item & 0x7F) << shift;
+                shift += 7;
+            } while (item < 0);
+            tacts[i] = tacts[i - 1] + delta;
+        }
+
+        return tacts;
+    }
+
+    /**
+     * Число тактов списка, не превосходящих {@code tact}.
+     */
+    int countUpTo(long tact) {
+        int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int low = 0;
+        int high = blocks - 1;
+        int block = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (blockFirst[middle] <= tact) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (block == -1) {
+            return 0;
+        }
+
+        int index = block * BLOCK_SIZE;
+        int end = Math.min(size, index + BLOCK_SIZE);
+        int offset = blockOffsets[block];
+        long current = blockFirst[block];
+        index++;
+
+        while (index < end) {
+            long delta = 0;
+            int shift = 0;
+            byte item;
+            do {
+                item = data[offset++];
+                delta |= (long) (item & 0x7F) << shift;
+                shift += 7;
+            } while (item < 0);
+
+            if (current + delta > tact) {
+                break;
+            }
+            current += delta;
+            index++;
+        }
+
+        return index;
+    }
+
+    private void writeVarLong(long value) {
+        if (dataSize + 10 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+
+        while ((value & ~0x7FL) != 0) {
+            data[dataSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[dataSize++] = (byte) value;
+    }
+}
@@ -0,0 +1,298 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.Alphabet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Процесс в виде {@link Flow.Processor}: каждый полученный вход делает шаг
+ * процесса, выход шага передается подписчику. Ошибка шага завершает поток
+ * исключением {@link WrongMachineParams}.
+ * <p>
+ * Выходы буферизуются не более чем на {@code capacity} элементов, а входы
+ * запрашиваются у источника пачками только под свободное место буфера, поэтому
+ * медленный подписчик притормаживает источник, а не наращивает очередь.
+ * В поток попадают только выходы шагов, сделанных самим процессором: шаги,
+ * выполненные с тем же процессом напрямую, буфер не занимают.
+ */
+public final class ProcessFlowProcessor<T> implements Flow.Processor<T, T> {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final MachineProcessInterface process;
+
+    private final Function<T, RunStatus> step;
+
+    private final Supplier<T> output;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final Object lock = new Object();
+
+    private final ArrayDeque<T> queue;
+
+    private Flow.Subscription upstream;
+
+    private Flow.Subscriber<? super T> downstream;
+
+    private long demand;
+
+    private long outstanding;
+
+    private boolean done;
+
+    private boolean cancelled;
+
+    private boolean terminated;
+
+    private Throwable error;
+
+    private boolean emitting;
+
+    private boolean missed;
+
+    private ProcessFlowProcessor(MachineProcessInterface process, Function<T, RunStatus> step,
+                                 Supplier<T> output, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер буфера должен быть положительным: " + capacity);
+        }
+
+        this.process = process;
+        this.step = step;
+        this.output = output;
+        this.capacity = capacity;
+        this.batchSize = Math.max(1, capacity / 2);
+        this.queue = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Входы и выходы — имена сигналов.
+     */
+    public static ProcessFlowProcessor<String> ofSymbols(MachineProcessInterface process, int capacity) {
+        return new ProcessFlowProcessor<>(process, process::tryStep, process::getLastResult, capacity);
+    }
+
+    public static ProcessFlowProcessor<String> ofSymbols(MachineProcessInterface process) {
+        return ofSymbols(process, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Входы и выходы — номера сигналов в алфавитах автомата.
+     */
+    public static ProcessFlowProcessor<Integer> ofIds(MachineProcessInterface process, int capacity) {
+        Alphabet results = process.getMachine().getResultsAlphabet();
+        return new ProcessFlowProcessor<>(process, process::tryStep,
+                () -> results.getId(process.getLastResult()), capacity);
+    }
+
+    public static ProcessFlowProcessor<Integer> ofIds(MachineProcessInterface process) {
+        return ofIds(process, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Подписчик может быть только один; остальные сразу получают ошибку.
+     * Методы подписчика вызываются вне блокировки.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        boolean accepted;
+        synchronized (lock) {
+            accepted = downstream == null;
+            if (accepted) {
+                downstream = subscriber;
+            }
+        }
+
+        if (!accepted) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Процесс уже имеет подписчика"));
+            return;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                Flow.Subscription subscription = null;
+                synchronized (lock) {
+                    if (n <= 0) {
+                        fail(new IllegalArgumentException("Запрошено неположительное число элементов: " + n));
+                        subscription = upstream;
+                    } else {
+                        demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+                    }
+                }
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                Flow.Subscription subscription;
+                synchronized (lock) {
+                    cancelled = true;
+                    queue.clear();
+                    subscription = upstream;
+                }
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+        });
+        drain();
+    }
+
+    /**
+     * Источник, подписавшийся после отмены или ошибки, сразу отменяется.
+     */
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (lock) {
+            if (upstream != null || cancelled || done) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        synchronized (lock) {
+            if (done || cancelled) {
+                return;
+            }
+            outstanding--;
+        }
+
+        if (step.apply(item) == RunStatus.COMPLETED) {
+            T result = output.get();
+            synchronized (lock) {
+                if (!cancelled) {
+                    queue.add(result);
+                }
+            }
+        } else {
+            Flow.Subscription subscription;
+            synchronized (lock) {
+                fail(new WrongMachineParams(process.getLastErrorMessage()));
+                subscription = upstream;
+            }
+            subscription.cancel();
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (lock) {
+            if (!done) {
+                done = true;
+                error = throwable;
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (lock) {
+            done = true;
+        }
+        drain();
+    }
+
+    private void fail(Throwable throwable) {
+        if (!done) {
+            done = true;
+            error = throwable;
+        }
+    }
+
+    /**
+     * Передает подписчику выходы под его запрос, завершает поток после
+     * последнего выхода и запрашивает у источника входы под свободное место.
+     * Вызовы из разных потоков сериализуются: работу выполняет тот, кто вошел
+     * первым.
+     */
+    private void drain() {
+        synchronized (lock) {
+            if (emitting) {
+                missed = true;
+                return;
+            }
+            emitting = true;
+        }
+
+        while (true) {
+            List<T> items = new ArrayList<>();
+            Flow.Subscriber<? super T> subscriber;
+            Flow.Subscription subscription;
+            boolean complete = false;
+            Throwable failure = null;
+            long request = 0;
+
+            synchronized (lock) {
+                subscriber = downstream;
+                subscription = upstream;
+
+                if (subscriber != null && !cancelled && !terminated) {
+                    while (demand > 0 && !queue.isEmpty()) {
+                        items.add(queue.poll());
+                        demand--;
+                    }
+
+                    if (done && queue.isEmpty()) {
+                        terminated = true;
+                        complete = error == null;
+                        failure = error;
+                    } else if (!done && subscription != null) {
+                        long free = capacity - queue.size() - outstanding;
+                        if (free >= batchSize) {
+                            outstanding += free;
+                            request = free;
+                        }
+                    }
+                }
+            }
+
+            for (T item: items) {
+                subscriber.onNext(item);
+            }
+            if (failure != null) {
+                subscriber.onError(failure);
+            } else if (complete) {
+                subscriber.onComplete();
+            }
+            if (request > 0) {
+                subscription.request(request);
+            }
+
+            synchronized (lock) {
+                if (!missed) {
+                    emitting = false;
+                    return;
+                }
+                missed = false;
+            }
+        }
+    }
+}
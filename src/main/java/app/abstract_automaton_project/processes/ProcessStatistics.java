@@ -0,0 +1,175 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+import java.util.Arrays;
+
+/**
+ * Статистика процесса, накапливаемая по ходу моделирования за O(1) на шаг и
+ * не требующая хранения истории: число посещений состояний, частоты
+ * переходов, гистограмма выходов и длительности пребывания в состояниях
+ * (число подряд идущих тактов в одном состоянии, включая незавершенное
+ * пребывание в текущем).
+ */
+public final class ProcessStatistics implements StepListener {
+
+    private final CompiledMachine compiledMachine;
+
+    private final long[] visits;
+
+    private final long[] transitions;
+
+    private final long[] outputs;
+
+    private final long[] dwellCounts;
+
+    private final long[] dwellTotals;
+
+    private final long[] dwellMin;
+
+    private final long[] dwellMax;
+
+    private long steps;
+
+    private long errors;
+
+    private int currentState;
+
+    private long currentDwell;
+
+    ProcessStatistics(CompiledMachine compiledMachine, int startState) {
+        int statesCount = compiledMachine.getStatesCount();
+
+        this.compiledMachine = compiledMachine;
+        this.visits = new long[statesCount];
+        this.transitions = new long[statesCount * compiledMachine.getInputsCount()];
+        this.outputs = new long[compiledMachine.getOutputsCount()];
+        this.dwellCounts = new long[statesCount];
+        this.dwellTotals = new long[statesCount];
+        this.dwellMin = new long[statesCount];
+        this.dwellMax = new long[statesCount];
+
+        onReset(startState);
+    }
+
+    /**
+     * Независимая копия статистики, которая дальше накапливается отдельно.
+     */
+    ProcessStatistics(ProcessStatistics source) {
+        this.compiledMachine = source.compiledMachine;
+        this.visits = source.visits.clone();
+        this.transitions = source.transitions.clone();
+        this.outputs = source.outputs.clone();
+        this.dwellCounts = source.dwellCounts.clone();
+        this.dwellTotals = source.dwellTotals.clone();
+        this.dwellMin = source.dwellMin.clone();
+        this.dwellMax = source.dwellMax.clone();
+        this.steps = source.steps;
+        this.errors = source.errors;
+        this.currentState = source.currentState;
+        this.currentDwell = source.currentDwell;
+    }
+
+    @Override
+    public void onStep(long tact, int input, int state, int output) {
+        steps++;
+        transitions[currentState * compiledMachine.getInputsCount() + input]++;
+        outputs[output]++;
+        visits[state]++;
+
+        if (state == currentState) {
+            currentDwell++;
+        } else {
+            closeDwell();
+            currentState = state;
+            currentDwell = 1;
+        }
+    }
+
+    @Override
+    public void onError(long tact, int input, int state, RunStatus status) {
+        errors++;
+    }
+
+    @Override
+    public void onReset(int startState) {
+        Arrays.fill(visits, 0);
+        Arrays.fill(transitions, 0);
+        Arrays.fill(outputs, 0);
+        Arrays.fill(dwellCounts, 0);
+        Arrays.fill(dwellTotals, 0);
+        Arrays.fill(dwellMin, 0);
+        Arrays.fill(dwellMax, 0);
+        steps = 0;
+        errors = 0;
+
+        currentState = startState;
+        currentDwell = 1;
+        visits[startState]++;
+    }
+
+    private void closeDwell() {
+        int state = currentState;
+        dwellMin[state] = (dwellCounts[state] == 0) ? currentDwell : Math.min(dwellMin[state], currentDwell);
+        dwellMax[state] = Math.max(dwellMax[state], currentDwell);
+        dwellTotals[state] += currentDwell;
+        dwellCounts[state]++;
+    }
+
+    public CompiledMachine getCompiledMachine() {
+        return compiledMachine;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Сколько раз процесс оказывался в состоянии (начальное состояние
+     * учитывается один раз при старте).
+     */
+    public long getVisits(int state) {
+        return visits[state];
+    }
+
+    public long getTransitionCount(int state, int input) {
+        return transitions[state * compiledMachine.getInputsCount() + input];
+    }
+
+    public long getOutputCount(int output) {
+        return outputs[output];
+    }
+
+    /**
+     * Число пребываний в состоянии (серий подряд идущих тактов).
+     */
+    public long getDwellCount(int state) {
+        return dwellCounts[state] + ((state == currentState) ? 1 : 0);
+    }
+
+    public long getMinDwell(int state) {
+        if (state != currentState) {
+            return dwellMin[state];
+        }
+
+        return (dwellCounts[state] == 0) ? currentDwell : Math.min(dwellMin[state], currentDwell);
+    }
+
+    public long getMaxDwell(int state) {
+        return (state == currentState) ? Math.max(dwellMax[state], currentDwell) : dwellMax[state];
+    }
+
+    public double getMeanDwell(int state) {
+        long count = getDwellCount(state);
+        if (count == 0) {
+            return 0;
+        }
+
+        long total = dwellTotals[state] + ((state == currentState) ? currentDwell : 0);
+        return (double) total / count;
+    }
+}
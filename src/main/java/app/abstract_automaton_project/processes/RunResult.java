@@ -0,0 +1,42 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+import java.util.Arrays;
+
+/**
+ * Итог пакетного прогона: номер конечного состояния, номера выходных
+ * сигналов обработанных тактов и индекс первого входа, на котором прогон
+ * остановился (-1, если обработаны все входы). При остановке на точке
+ * останова это индекс первого невыполненного входа.
+ */
+public record RunResult(int finalState, int[] outputs, int failedIndex, RunStatus status) {
+
+    static RunResult of(CompiledMachine compiledMachine, int[] inputs, long run, int[] outputs) {
+        int processed = CompiledMachine.stopIndex(run);
+        int finalState = CompiledMachine.stopState(run);
+
+        if (processed == inputs.length) {
+            return new RunResult(finalState, outputs, -1, RunStatus.COMPLETED);
+        }
+
+        int failedInput = inputs[processed];
+        RunStatus status = (failedInput < 0 || failedInput >= compiledMachine.getInputsCount())
+                ? RunStatus.UNKNOWN_INPUT
+                : RunStatus.UNDEFINED_TRANSITION;
+
+        return new RunResult(finalState, Arrays.copyOf(outputs, processed), processed, status);
+    }
+
+    static RunResult breakpoint(int finalState, int[] outputs, int processed) {
+        return new RunResult(finalState, Arrays.copyOf(outputs, processed), processed, RunStatus.BREAKPOINT);
+    }
+
+    public boolean isCompleted() {
+        return status == RunStatus.COMPLETED;
+    }
+
+    public int getProcessedCount() {
+        return outputs.length;
+    }
+}
@@ -0,0 +1,15 @@
+package app.abstract_automaton_project.processes;
+
+public enum RunStatus {
+
+    COMPLETED,
+
+    UNKNOWN_INPUT,
+
+    UNDEFINED_TRANSITION,
+
+    /**
+     * Прогон остановлен точкой останова после такта, на котором она сработала.
+     */
+    BREAKPOINT
+}
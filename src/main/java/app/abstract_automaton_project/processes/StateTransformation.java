@@ -0,0 +1,174 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+/**
+ * Действие фрагмента входа на автомат сразу для всех начальных состояний:
+ * где остановится прогон, на каком такте фрагмента он оборвется (если
+ * оборвется), последний выданный выход и, по запросу, сколько раз был выдан
+ * каждый выход. Такие действия композируются ассоциативно, поэтому степень
+ * фрагмента считается возведением в степень за O(log n) композиций.
+ */
+final class StateTransformation {
+
+    private final long length;
+
+    private final int[] stopStates;
+
+    private final long[] failOffsets;
+
+    private final int[] lastOutputs;
+
+    private final long[] outputCounts;
+
+    private final int outputsCount;
+
+    private StateTransformation(long length, int[] stopStates, long[] failOffsets, int[] lastOutputs,
+                                long[] outputCounts, int outputsCount) {
+        this.length = length;
+        this.stopStates = stopStates;
+        this.failOffsets = failOffsets;
+        this.lastOutputs = lastOutputs;
+        this.outputCounts = outputCounts;
+        this.outputsCount = outputsCount;
+    }
+
+    static StateTransformation identity(CompiledMachine compiledMachine, boolean withOutputCounts) {
+        int statesCount = compiledMachine.getStatesCount();
+        int outputsCount = compiledMachine.getOutputsCount();
+
+        int[] stopStates = new int[statesCount];
+        long[] failOffsets = new long[statesCount];
+        int[] lastOutputs = new int[statesCount];
+        for (int state = 0; state < statesCount; state++) {
+            stopStates[state] = state;
+            failOffsets[state] = -1;
+            lastOutputs[state] = CompiledMachine.UNDEFINED;
+        }
+
+        return new StateTransformation(0, stopStates, failOffsets, lastOutputs,
+                withOutputCounts ? new long[statesCount * outputsCount] : null, outputsCount);
+    }
+
+    static StateTransformation symbol(CompiledMachine compiledMachine, int input, boolean withOutputCounts) {
+        int statesCount = compiledMachine.getStatesCount();
+        int outputsCount = compiledMachine.getOutputsCount();
+        boolean known = input >= 0 && input < compiledMachine.getInputsCount();
+
+        int[] stopStates = new int[statesCount];
+        long[] failOffsets = new long[statesCount];
+        int[] lastOutputs = new int[statesCount];
+        long[] outputCounts = withOutputCounts ? new long[statesCount * outputsCount] : null;
+
+        for (int state = 0; state < statesCount; state++) {
+            int nextState = known ? compiledMachine.getNextState(state, input) : CompiledMachine.UNDEFINED;
+
+            if (nextState == CompiledMachine.UNDEFINED) {
+                stopStates[state] = state;
+                failOffsets[state] = 0;
+                lastOutputs[state] = CompiledMachine.UNDEFINED;
+            } else {
+                int output = compiledMachine.getOutput(state, input);
+                stopStates[state] = nextState;
+                failOffsets[state] = -1;
+                lastOutputs[state] = output;
+                if (outputCounts != null) {
+                    outputCounts[state * outputsCount + output] = 1;
+                }
+            }
+        }
+
+        return new StateTransformation(1, stopStates, failOffsets, lastOutputs, outputCounts, outputsCount);
+    }
+
+    StateTransformation then(StateTransformation next) {
+        if (length == 0) {
+            return next;
+        }
+        if (next.length == 0) {
+            return this;
+        }
+
+        int statesCount = stopStates.length;
+        int[] stopStates = new int[statesCount];
+        long[] failOffsets = new long[statesCount];
+        int[] lastOutputs = new int[statesCount];
+        long[] outputCounts = (this.outputCounts != null) ? new long[this.outputCounts.length] : null;
+
+        for (int state = 0; state < statesCount; state++) {
+            int middle = this.stopStates[state];
+
+            if (this.failOffsets[state] != -1) {
+                stopStates[state] = middle;
+                failOffsets[state] = this.failOffsets[state];
+                lastOutputs[state] = this.lastOutputs[state];
+            } else {
+                stopStates[state] = next.stopStates[middle];
+                failOffsets[state] = (next.failOffsets[middle] == -1) ? -1 : length + next.failOffsets[middle];
+                lastOutputs[state] = (next.lastOutputs[middle] == CompiledMachine.UNDEFINED)
+                        ? this.lastOutputs[state]
+                        : next.lastOutputs[middle];
+            }
+
+            if (outputCounts != null) {
+                int offset = state * outputsCount;
+                System.arraycopy(this.outputCounts, offset, outputCounts, offset, outputsCount);
+
+                if (this.failOffsets[state] == -1) {
+                    int nextOffset = middle * outputsCount;
+                    for (int output = 0; output < outputsCount; output++) {
+                        outputCounts[offset + output] += next.outputCounts[nextOffset + output];
+                    }
+                }
+            }
+        }
+
+        return new StateTransformation(Math.addExact(length, next.length),
+                stopStates, failOffsets, lastOutputs, outputCounts, outputsCount);
+    }
+
+    StateTransformation power(long exponent) {
+        StateTransformation result = null;
+        StateTransformation base = this;
+
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = (result == null) ? base : result.then(base);
+            }
+
+            exponent >>= 1;
+            if (exponent > 0) {
+                base = base.then(base);
+            }
+        }
+
+        return result;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    int getStopState(int state) {
+        return stopStates[state];
+    }
+
+    long getFailOffset(int state) {
+        return failOffsets[state];
+    }
+
+    int getLastOutput(int state) {
+        return lastOutputs[state];
+    }
+
+    long[] getOutputCounts(int state) {
+        if (outputCounts == null) {
+            return null;
+        }
+
+        long[] counts = new long[outputsCount];
+        System.arraycopy(outputCounts, state * outputsCount, counts, 0, outputsCount);
+
+        return counts;
+    }
+}
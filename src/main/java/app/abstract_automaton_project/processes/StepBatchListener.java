@@ -0,0 +1,35 @@
+package app.abstract_automaton_project.processes;
+
+/**
+ * Наблюдатель, получающий шаги пачками в примитивных массивах. Пачка
+ * передается, когда заполнена, перед сообщением об ошибке или сбросе и по
+ * {@link MachineProcessInterface#flushStepListeners()}.
+ */
+public interface StepBatchListener {
+
+    /**
+     * Такты с {@code firstTact} по {@code firstTact + count - 1}. Массивы
+     * переиспользуются после возврата из метода.
+     */
+    void onSteps(long firstTact, int[] inputs, int[] states, int[] outputs, int count);
+
+    default void onError(long tact, int input, int state, RunStatus status) {
+    }
+
+    /**
+     * См. {@link StepListener#onSkip(long, long, int, long[])}. Накопленная
+     * пачка передается перед этим вызовом.
+     */
+    default void onSkip(long firstTact, long count, int state, long[] outputCounts) {
+    }
+
+    /**
+     * См. {@link StepListener#acceptsSkips()}.
+     */
+    default boolean acceptsSkips() {
+        return false;
+    }
+
+    default void onReset(int startState) {
+    }
+}
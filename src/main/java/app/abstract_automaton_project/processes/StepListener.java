@@ -0,0 +1,48 @@
+package app.abstract_automaton_project.processes;
+
+/**
+ * Наблюдатель за шагами процесса. Состояния, входы и выходы передаются
+ * номерами в алфавитах {@link app.abstract_automaton_project.machines.CompiledMachine}.
+ */
+public interface StepListener {
+
+    /**
+     * Выполнен такт {@code tact}: по входу {@code input} автомат перешел в
+     * состояние {@code state} и выдал выход {@code output}.
+     */
+    void onStep(long tact, int input, int state, int output);
+
+    /**
+     * Такт {@code tact} не выполнен: вход {@code input} неизвестен
+     * ({@link RunStatus#UNKNOWN_INPUT}, номер может быть
+     * {@link app.abstract_automaton_project.machines.CompiledMachine#UNDEFINED})
+     * или из состояния {@code state} нет перехода.
+     */
+    default void onError(long tact, int input, int state, RunStatus status) {
+    }
+
+    /**
+     * Такты с {@code firstTact} по {@code firstTact + count - 1} выполнены без
+     * пошаговых уведомлений: процесс прогнал их целиком, не разворачивая (см.
+     * {@link MachineProcessInterface#runExpression(InputExpression)} и
+     * {@link MachineProcessInterface#runRepeated(int[], long)}), так как они
+     * не попадают в хранимую историю. После них автомат в состоянии
+     * {@code state}, а {@code outputCounts[o]} — сколько раз за эти такты
+     * был выдан выход {@code o}. Вызывается, только если все наблюдатели
+     * процесса согласны на пропуск (см. {@link #acceptsSkips()}).
+     */
+    default void onSkip(long firstTact, long count, int state, long[] outputCounts) {
+    }
+
+    /**
+     * Согласен ли наблюдатель получать такты, не попадающие в историю, одним
+     * вызовом {@link #onSkip}. Если хоть один наблюдатель не согласен, процесс
+     * прогоняет такие такты пошагово и сообщает о каждом через {@link #onStep}.
+     */
+    default boolean acceptsSkips() {
+        return false;
+    }
+
+    default void onReset(int startState) {
+    }
+}
@@ -0,0 +1,185 @@
+package app.abstract_automaton_project.processes;
+
+import java.util.Arrays;
+
+/**
+ * Зарегистрированные наблюдатели процесса. Процесс держит этот объект только
+ * пока есть хотя бы один наблюдатель, так что без наблюдателей шаг стоит одну
+ * проверку на {@code null}.
+ */
+final class StepObservers {
+
+    private StepListener[] listeners = new StepListener[0];
+
+    private Batch[] batches = new Batch[0];
+
+    void add(StepListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    void add(StepBatchListener listener, int batchSize) {
+        batches = Arrays.copyOf(batches, batches.length + 1);
+        batches[batches.length - 1] = new Batch(listener, batchSize);
+    }
+
+    void remove(StepListener listener) {
+        listeners = Arrays.stream(listeners)
+                .filter(item -> item != listener)
+                .toArray(StepListener[]::new);
+    }
+
+    void remove(StepBatchListener listener) {
+        for (Batch batch: batches) {
+            if (batch.listener == listener) {
+                batch.flush();
+            }
+        }
+        batches = Arrays.stream(batches)
+                .filter(batch -> batch.listener != listener)
+                .toArray(Batch[]::new);
+    }
+
+    boolean isEmpty() {
+        return listeners.length == 0 && batches.length == 0;
+    }
+
+    /**
+     * Можно ли пропускать такты вызовом {@link #skip}, а не пошагово.
+     */
+    boolean acceptSkips() {
+        for (StepListener listener: listeners) {
+            if (!listener.acceptsSkips()) {
+                return false;
+            }
+        }
+        for (Batch batch: batches) {
+            if (!batch.listener.acceptsSkips()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    void step(long tact, int input, int state, int output) {
+        for (StepListener listener: listeners) {
+            listener.onStep(tact, input, state, output);
+        }
+        for (Batch batch: batches) {
+            batch.add(tact, input, state, output);
+        }
+    }
+
+    /**
+     * Такты с {@code firstTact} для элементов массивов {@code [0..count)}.
+     */
+    void steps(long firstTact, int[] inputs, int[] states, int[] outputs, int count) {
+        for (StepListener listener: listeners) {
+            for (int i = 0; i < count; i++) {
+                listener.onStep(firstTact + i, inputs[i], states[i], outputs[i]);
+            }
+        }
+        for (Batch batch: batches) {
+            batch.addAll(firstTact, inputs, states, outputs, count);
+        }
+    }
+
+    void error(long tact, int input, int state, RunStatus status) {
+        for (StepListener listener: listeners) {
+            listener.onError(tact, input, state, status);
+        }
+        for (Batch batch: batches) {
+            batch.flush();
+            batch.listener.onError(tact, input, state, status);
+        }
+    }
+
+    void skip(long firstTact, long count, int state, long[] outputCounts) {
+        for (StepListener listener: listeners) {
+            listener.onSkip(firstTact, count, state, outputCounts);
+        }
+        for (Batch batch: batches) {
+            batch.flush();
+            batch.listener.onSkip(firstTact, count, state, outputCounts);
+        }
+    }
+
+    void reset(int startState) {
+        for (StepListener listener: listeners) {
+            listener.onReset(startState);
+        }
+        for (Batch batch: batches) {
+            batch.flush();
+            batch.listener.onReset(startState);
+        }
+    }
+
+    void flush() {
+        for (Batch batch: batches) {
+            batch.flush();
+        }
+    }
+
+    private static final class Batch {
+
+        private final StepBatchListener listener;
+
+        private final int[] inputs;
+
+        private final int[] states;
+
+        private final int[] outputs;
+
+        private long firstTact;
+
+        private int count;
+
+        private Batch(StepBatchListener listener, int batchSize) {
+            this.listener = listener;
+            this.inputs = new int[batchSize];
+            this.states = new int[batchSize];
+            this.outputs = new int[batchSize];
+        }
+
+        private void add(long tact, int input, int state, int output) {
+            if (count == 0) {
+                firstTact = tact;
+            }
+
+            inputs[count] = input;
+            states[count] = state;
+            outputs[count] = output;
+            if (++count == inputs.length) {
+                flush();
+            }
+        }
+
+        private void addAll(long tact, int[] inputs, int[] states, int[] outputs, int length) {
+            int offset = 0;
+            while (offset < length) {
+                if (count == 0) {
+                    firstTact = tact + offset;
+                }
+
+                int part = Math.min(length - offset, this.inputs.length - count);
+                System.arraycopy(inputs, offset, this.inputs, count, part);
+                System.arraycopy(states, offset, this.states, count, part);
+                System.arraycopy(outputs, offset, this.outputs, count, part);
+
+                offset += part;
+                count += part;
+                if (count == this.inputs.length) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() {
+            if (count > 0) {
+                listener.onSteps(firstTact, inputs, states, outputs, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package app.abstract_automaton_project.processes;
+
+/**
+ * Итог потокового прогона: номер конечного состояния, число обработанных
+ * тактов и, при ошибке, вход, на котором прогон остановился.
+ */
+public record StreamResult(int finalState, long processedCount, String failedInput, RunStatus status) {
+
+    public boolean isCompleted() {
+        return status == RunStatus.COMPLETED;
+    }
+}
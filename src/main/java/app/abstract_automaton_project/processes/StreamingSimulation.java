@@ -0,0 +1,131 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.ReadMachineException;
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+import app.abstract_automaton_project.machines.Machine;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое моделирование: входы читаются по одному, выходы сразу
+ * передаются получателю, история не хранится, поэтому расход памяти
+ * не зависит от длины входной последовательности.
+ * <p>
+ * Входные сигналы в тексте разделяются запятыми и/или пробельными символами
+ * (в том числе переводами строк), пустые элементы пропускаются: {@code x1 x2}
+ * — это два сигнала, а не один сигнал {@code x1x2}.
+ */
+public class StreamingSimulation {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final CompiledMachine compiledMachine;
+
+    private final Alphabet transitions;
+
+    private final Alphabet results;
+
+    private final Consumer<String> sink;
+
+    private int currentState;
+
+    private long processedCount;
+
+    private String failedInput;
+
+    private RunStatus status;
+
+    private StreamingSimulation(Machine machine, Consumer<String> sink) {
+        this.compiledMachine = machine.getCompiledMachine();
+        this.transitions = compiledMachine.getTransitions();
+        this.results = compiledMachine.getResults();
+        this.sink = sink;
+        this.currentState = compiledMachine.getStartState();
+        this.processedCount = 0;
+        this.failedInput = null;
+        this.status = RunStatus.COMPLETED;
+    }
+
+    public static StreamResult run(Machine machine, InputStream inputStream, Consumer<String> sink) {
+        return run(machine, new InputStreamReader(inputStream, StandardCharsets.UTF_8), sink);
+    }
+
+    public static StreamResult run(Machine machine, Reader reader, Consumer<String> sink) {
+        StreamingSimulation simulation = new StreamingSimulation(machine, sink);
+
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder token = new StringBuilder();
+
+        try {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    char symbol = buffer[i];
+
+                    if (symbol == ',' || Character.isWhitespace(symbol)) {
+                        if (!simulation.accept(token)) {
+                            return simulation.getResult();
+                        }
+                        token.setLength(0);
+                    } else {
+                        token.append(symbol);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new ReadMachineException(ex.getMessage());
+        }
+
+        simulation.accept(token);
+        return simulation.getResult();
+    }
+
+    public static StreamResult run(Machine machine, Iterator<String> inputs, Consumer<String> sink) {
+        StreamingSimulation simulation = new StreamingSimulation(machine, sink);
+
+        while (inputs.hasNext()) {
+            if (!simulation.step(inputs.next())) {
+                break;
+            }
+        }
+
+        return simulation.getResult();
+    }
+
+    private boolean accept(StringBuilder token) {
+        return token.isEmpty() || step(token.toString());
+    }
+
+    private boolean step(String input) {
+        int inputId = transitions.getId(input);
+        if (inputId == Alphabet.UNKNOWN) {
+            return fail(input, RunStatus.UNKNOWN_INPUT);
+        }
+
+        int nextState = compiledMachine.getNextState(currentState, inputId);
+        if (nextState == CompiledMachine.UNDEFINED) {
+            return fail(input, RunStatus.UNDEFINED_TRANSITION);
+        }
+
+        sink.accept(results.getSymbol(compiledMachine.getOutput(currentState, inputId)));
+        currentState = nextState;
+        processedCount++;
+
+        return true;
+    }
+
+    private boolean fail(String input, RunStatus status) {
+        this.failedInput = input;
+        this.status = status;
+
+        return false;
+    }
+
+    private StreamResult getResult() {
+        return new StreamResult(currentState, processedCount, failedInput, status);
+    }
+}
@@ -0,0 +1,162 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+
+/**
+ * Индекс истории процесса: для каждого состояния, входа и выхода — сжатый
+ * список тактов, в которых он встретился. Пополняется по ходу моделирования
+ * и отвечает на запросы за логарифмическое время.
+ * <p>
+ * Такты нумеруются как в процессе: состояние на такте 0 — начальное, вход и
+ * выход такта {@code t} (t ≥ 1) переводят автомат в состояние такта {@code t}.
+ */
+public final class TraceIndex implements StepListener {
+
+    public enum Kind {
+        STATE,
+        INPUT,
+        OUTPUT
+    }
+
+    private final CompiledMachine compiledMachine;
+
+    private final PostingList[] states;
+
+    private final PostingList[] inputs;
+
+    private final PostingList[] outputs;
+
+    TraceIndex(CompiledMachine compiledMachine, long tact, int state) {
+        this.compiledMachine = compiledMachine;
+        this.states = new PostingList[compiledMachine.getStatesCount()];
+        this.inputs = new PostingList[compiledMachine.getInputsCount()];
+        this.outputs = new PostingList[compiledMachine.getOutputsCount()];
+
+        add(states, state, tact);
+    }
+
+    /**
+     * Независимая копия индекса, которая дальше пополняется отдельно.
+     */
+    TraceIndex(TraceIndex source) {
+        this.compiledMachine = source.compiledMachine;
+        this.states = copy(source.states);
+        this.inputs = copy(source.inputs);
+        this.outputs = copy(source.outputs);
+    }
+
+    private static PostingList[] copy(PostingList[] lists) {
+        PostingList[] copy = new PostingList[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            copy[i] = (lists[i] != null) ? new PostingList(lists[i]) : null;
+        }
+
+        return copy;
+    }
+
+    @Override
+    public void onStep(long tact, int input, int state, int output) {
+        add(inputs, input, tact);
+        add(states, state, tact);
+        add(outputs, output, tact);
+    }
+
+    @Override
+    public void onReset(int startState) {
+        clear(states);
+        clear(inputs);
+        clear(outputs);
+
+        add(states, startState, 0);
+    }
+
+    private static void add(PostingList[] lists, int symbol, long tact) {
+        if (lists[symbol] == null) {
+            lists[symbol] = new PostingList();
+        }
+        lists[symbol].add(tact);
+    }
+
+    private static void clear(PostingList[] lists) {
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = null;
+        }
+    }
+
+    /**
+     * Номер символа по имени в алфавите соответствующего вида или
+     * {@link Alphabet#UNKNOWN}.
+     */
+    public int getSymbolId(Kind kind, String symbol) {
+        return getAlphabet(kind).getId(symbol);
+    }
+
+    public Alphabet getAlphabet(Kind kind) {
+        return switch (kind) {
+            case STATE -> compiledMachine.getConditions();
+            case INPUT -> compiledMachine.getTransitions();
+            case OUTPUT -> compiledMachine.getResults();
+        };
+    }
+
+    /**
+     * Первый такт не раньше {@code tact}, где встретился символ, или -1.
+     */
+    public long next(Kind kind, int symbol, long tact) {
+        PostingList list = getList(kind, symbol);
+        if (list == null) {
+            return -1;
+        }
+
+        int index = list.countUpTo(tact - 1);
+        return (index < list.size()) ? list.get(index) : -1;
+    }
+
+    /**
+     * Последний такт не позже {@code tact}, где встретился символ, или -1.
+     */
+    public long previous(Kind kind, int symbol, long tact) {
+        PostingList list = getList(kind, symbol);
+        if (list == null) {
+            return -1;
+        }
+
+        int index = list.countUpTo(tact);
+        return (index > 0) ? list.get(index - 1) : -1;
+    }
+
+    /**
+     * Сколько раз символ встретился в тактах {@code [from, to]}.
+     */
+    public int count(Kind kind, int symbol, long from, long to) {
+        PostingList list = getList(kind, symbol);
+        if (list == null || from > to) {
+            return 0;
+        }
+
+        return list.countUpTo(to) - list.countUpTo(from - 1);
+    }
+
+    /**
+     * Все такты, где встретился символ, по возрастанию.
+     */
+    public long[] getTacts(Kind kind, int symbol) {
+        PostingList list = getList(kind, symbol);
+        if (list == null) {
+            return new long[0];
+        }
+
+        return list.toArray();
+    }
+
+    private PostingList getList(Kind kind, int symbol) {
+        PostingList[] lists = switch (kind) {
+            case STATE -> states;
+            case INPUT -> inputs;
+            case OUTPUT -> outputs;
+        };
+
+        return (symbol < 0 || symbol >= lists.length) ? null : lists[symbol];
+    }
+}
@@ -2,6 +2,7 @@ package app.abstract_automaton_project.utils;
 
 import app.abstract_automaton_project.exceptions.ReadMachineException;
 import app.abstract_automaton_project.exceptions.SaveMachineException;
+import app.abstract_automaton_project.machines.Alphabet;
 import app.abstract_automaton_project.machines.Machine;
 import app.abstract_automaton_project.machines.MealyMachine;
 import app.abstract_automaton_project.machines.MoorMachine;
@@ -45,9 +46,10 @@ public class MachineFileTransformer {
         List<List<String>> conditionsMatrix = extractConditionsMatrix(params,
                 conditions.size(), inputs.size());
 
+        Alphabet conditionsAlphabet = new Alphabet(conditions);
         for (List<String> conditionsRow: conditionsMatrix) {
             for (String condition: conditionsRow) {
-                if (!conditionsRow.contains(condition)) {
+                if (!condition.equals("-") && !conditionsAlphabet.contains(condition)) {
                     throw new ReadMachineException(String.format(
                             "Состояние \"%s\" не присутствует в списке доступных состояний",
                             condition
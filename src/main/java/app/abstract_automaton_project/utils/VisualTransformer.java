@@ -1,7 +1,11 @@
 package app.abstract_automaton_project.utils;
 
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
 import app.abstract_automaton_project.machines.Machine;
+import app.abstract_automaton_project.machines.StructureReport;
 import app.abstract_automaton_project.processes.MachineProcessInterface;
+import app.abstract_automaton_project.processes.ProcessStatistics;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +13,8 @@ import java.util.stream.Stream;
 
 public class VisualTransformer {
 
+    private static final int MAX_LISTED_ITEMS = 20;
+
     public static String getMachineDescription(Machine machine) {
         String printStr = machine.getMachineNamePrint() + System.lineSeparator() +
                 "СОСТОЯНИЯ:           " + machine.getConditions() + System.lineSeparator() +
@@ -22,11 +28,85 @@ public class VisualTransformer {
 
         String results = machine.getResultsPrint();
         if (!results.isEmpty()) {
-            return printStr + "ТАБЛИЦА ВЫХОДОВ:" + System.lineSeparator() +
+            printStr += "ТАБЛИЦА ВЫХОДОВ:" + System.lineSeparator() +
                     machine.getResultsPrint();
         }
 
-        return printStr;
+        return printStr + getStructureDescription(machine.analyzeStructure());
+    }
+
+    public static String getStructureDescription(StructureReport report) {
+        CompiledMachine compiledMachine = report.getCompiledMachine();
+        Alphabet conditions = compiledMachine.getConditions();
+        Alphabet transitions = compiledMachine.getTransitions();
+
+        List<String> undefinedTransitions = new ArrayList<>();
+        for (int cell: report.getUndefinedTransitions(MAX_LISTED_ITEMS)) {
+            undefinedTransitions.add(String.format("\"%s\" + \"%s\"",
+                    conditions.getSymbol(cell / compiledMachine.getInputsCount()),
+                    transitions.getSymbol(cell % compiledMachine.getInputsCount())));
+        }
+
+        List<String> traps = new ArrayList<>();
+        for (int component: report.getTrapComponents()) {
+            traps.add(String.valueOf(report.getComponentSize(component)));
+        }
+
+        return System.lineSeparator() +
+                "СТРУКТУРА:" + System.lineSeparator() +
+                String.format("Достижимых состояний: %d из %d",
+                        report.getReachableCount(), conditions.size()) + System.lineSeparator() +
+                "Недостижимые состояния: " + getStatesList(conditions, report.getUnreachableStates()) +
+                System.lineSeparator() +
+                "Тупиковые состояния (все переходы \"-\"): " +
+                getStatesList(conditions, report.getDeadEndStates()) + System.lineSeparator() +
+                "Поглощающие состояния: " + getStatesList(conditions, report.getSinkStates()) +
+                System.lineSeparator() +
+                String.format("Компонент сильной связности: %d, наибольшая: %d",
+                        report.getComponentsCount(), report.getLargestComponentSize()) +
+                System.lineSeparator() +
+                "Замкнутые циклы (размеры): " + getLimitedList(traps, traps.size()) +
+                System.lineSeparator() +
+                String.format("Отсутствующие переходы из достижимых состояний: %d",
+                        report.getUndefinedTransitionsCount()) + System.lineSeparator() +
+                (undefinedTransitions.isEmpty() ? ""
+                        : getLimitedList(undefinedTransitions, report.getUndefinedTransitionsCount()) +
+                        System.lineSeparator());
+    }
+
+    /**
+     * Краткая сводка для уведомления: только найденные проблемы.
+     */
+    public static String getStructureSummary(StructureReport report) {
+        List<String> problems = new ArrayList<>();
+        int unreachable = report.getCompiledMachine().getStatesCount() - report.getReachableCount();
+        if (unreachable > 0) {
+            problems.add("недостижимых состояний: " + unreachable);
+        }
+        if (report.getDeadEndStates().length > 0) {
+            problems.add("тупиковых состояний: " + report.getDeadEndStates().length);
+        }
+        if (report.getUndefinedTransitionsCount() > 0) {
+            problems.add("отсутствующих переходов: " + report.getUndefinedTransitionsCount());
+        }
+
+        return String.join(", ", problems);
+    }
+
+    private static String getStatesList(Alphabet conditions, int[] states) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < Math.min(states.length, MAX_LISTED_ITEMS); i++) {
+            names.add(conditions.getSymbol(states[i]));
+        }
+
+        return getLimitedList(names, states.length);
+    }
+
+    private static String getLimitedList(List<String> items, long totalCount) {
+        List<String> shown = items.subList(0, Math.min(items.size(), MAX_LISTED_ITEMS));
+        return (totalCount > shown.size())
+                ? shown + String.format(" ... (еще %d)", totalCount - shown.size())
+                : shown.toString();
     }
 
     public static String getResultsDescription(MachineProcessInterface process) {
@@ -37,6 +117,7 @@ public class VisualTransformer {
                 "══════════════════════════════════════════════════════" +
                 System.lineSeparator() + System.lineSeparator() +
                 getProcessMatrix(process) + System.lineSeparator() +
+                getHistoryNote(process) +
                 "Входная последовательность: " + process.getInputsHistory() +
                 System.lineSeparator() +
                 "Последовательность состояний: " + process.getAllConditionsFromHistory() +
@@ -44,7 +125,70 @@ public class VisualTransformer {
                 "Выходная последовательность: " + process.getAllResults() +
                 System.lineSeparator() +
                 "Итоговое состояние: " + process.getLastConditionFromHistory() +
-                System.lineSeparator();
+                System.lineSeparator() +
+                getStatisticsDescription(process.getStatistics());
+    }
+
+    /**
+     * Предупреждение, если процесс хранит не все такты.
+     */
+    private static String getHistoryNote(MachineProcessInterface process) {
+        long tacts = process.getTactNumber() - 1;
+        int stored = process.getInputsHistory().size();
+
+        return (stored < tacts)
+                ? String.format("В истории сохранено тактов: %d из %d", stored, tacts) + System.lineSeparator()
+                : "";
+    }
+
+    public static String getStatisticsDescription(ProcessStatistics statistics) {
+        if (statistics == null) {
+            return "";
+        }
+
+        CompiledMachine compiledMachine = statistics.getCompiledMachine();
+        Alphabet conditions = compiledMachine.getConditions();
+        Alphabet transitions = compiledMachine.getTransitions();
+        Alphabet results = compiledMachine.getResults();
+
+        StringBuilder builder = new StringBuilder(System.lineSeparator())
+                .append("СТАТИСТИКА:").append(System.lineSeparator())
+                .append(String.format("Тактов: %d, ошибок: %d", statistics.getSteps(), statistics.getErrors()))
+                .append(System.lineSeparator());
+
+        builder.append("Состояния (посещений; пребывание мин/макс/среднее):").append(System.lineSeparator());
+        for (int state = 0; state < conditions.size(); state++) {
+            if (statistics.getVisits(state) == 0) {
+                continue;
+            }
+
+            builder.append(String.format("    %s: %d; %d/%d/%.2f",
+                            conditions.getSymbol(state), statistics.getVisits(state),
+                            statistics.getMinDwell(state), statistics.getMaxDwell(state),
+                            statistics.getMeanDwell(state)))
+                    .append(System.lineSeparator());
+        }
+
+        builder.append("Переходы:").append(System.lineSeparator());
+        for (int state = 0; state < conditions.size(); state++) {
+            for (int input = 0; input < transitions.size(); input++) {
+                long count = statistics.getTransitionCount(state, input);
+                if (count > 0) {
+                    builder.append(String.format("    \"%s\" + \"%s\" -> \"%s\": %d",
+                                    conditions.getSymbol(state), transitions.getSymbol(input),
+                                    conditions.getSymbol(compiledMachine.getNextState(state, input)), count))
+                            .append(System.lineSeparator());
+                }
+            }
+        }
+
+        builder.append("Выходы:").append(System.lineSeparator());
+        for (int output = 0; output < results.size(); output++) {
+            builder.append(String.format("    %s: %d", results.getSymbol(output), statistics.getOutputCount(output)))
+                    .append(System.lineSeparator());
+        }
+
+        return builder.toString();
     }
 
     private static String getProcessMatrix(MachineProcessInterface process) {
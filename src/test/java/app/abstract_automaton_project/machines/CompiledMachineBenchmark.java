@@ -0,0 +1,89 @@
+package app.abstract_automaton_project.machines;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Замер путей пакетного прогона {@link CompiledMachine}: по несжатым таблицам,
+ * по упакованной таблице и блоками по нескольку входов. В обычный прогон
+ * тестов не входит (имя не оканчивается на Test); запуск:
+ * {@code mvn test -Dtest=CompiledMachineBenchmark}.
+ * <p>
+ * Для каждого размера автомата выводится медиана времени на один вход по
+ * нескольким замерам после прогрева; последний столбец — путь, который
+ * {@link CompiledMachine#run} выбирает сам. Пути, для которых таблица не
+ * построена, не замеряются.
+ */
+class CompiledMachineBenchmark {
+
+    private static final int INPUTS_LENGTH = 1 << 20;
+
+    private static final int WARMUP_ROUNDS = 10;
+
+    private static final int MEASURED_ROUNDS = 15;
+
+    private static final int[] STATES_COUNTS = {16, 256, 1024, 4096, 65536};
+
+    private static final int INPUTS_COUNT = 4;
+
+    private long sink;
+
+    @Test
+    void runPaths() {
+        Random random = new Random(42);
+        System.out.printf("%10s %8s %12s %12s %12s %12s%n",
+                "states", "stride", "plain ns", "packed ns", "strided ns", "run ns");
+
+        for (int statesCount: STATES_COUNTS) {
+            CompiledMachine compiledMachine = TestMachines.randomMealy(random, statesCount, INPUTS_COUNT, 4, 0)
+                    .getCompiledMachine();
+            int[] inputs = new int[INPUTS_LENGTH];
+            for (int index = 0; index < inputs.length; index++) {
+                inputs[index] = random.nextInt(INPUTS_COUNT);
+            }
+            int[] outputs = new int[INPUTS_LENGTH];
+
+            double plain = measure(() -> compiledMachine.runPlain(0, inputs, 0, inputs.length, null, outputs));
+            double packed = compiledMachine.hasPackedTable()
+                    ? measure(() -> compiledMachine.runPacked(0, inputs, 0, inputs.length, null, outputs))
+                    : Double.NaN;
+            double strided = (compiledMachine.getStride() > 1)
+                    ? measure(() -> compiledMachine.runStrided(0, inputs, 0, inputs.length, outputs))
+                    : Double.NaN;
+            double run = measure(() -> compiledMachine.run(0, inputs, 0, inputs.length, null, outputs));
+
+            System.out.printf("%10d %8d %12.2f %12.2f %12.2f %12.2f%n",
+                    statesCount, compiledMachine.getStride(), plain, packed, strided, run);
+        }
+
+        assertNotEquals(Long.MIN_VALUE, sink);
+    }
+
+    /**
+     * Медиана времени на один вход в наносекундах.
+     */
+    private double measure(Run run) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += run.run();
+        }
+
+        double[] times = new double[MEASURED_ROUNDS];
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += run.run();
+            times[round] = (double) (System.nanoTime() - start) / INPUTS_LENGTH;
+        }
+
+        Arrays.sort(times);
+        return times[MEASURED_ROUNDS / 2];
+    }
+
+    private interface Run {
+
+        long run();
+    }
+}
@@ -0,0 +1,127 @@
+package app.abstract_automaton_project.machines;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledMachineTest {
+
+    @Test
+    void runPathsAgree() {
+        Random random = new Random(9);
+        int stridedMachines = 0;
+        int packedMachines = 0;
+
+        for (int test = 0; test < 500; test++) {
+            int statesCount = (test % 10 == 3) ? 2100 + test : 1 + test % 60;
+            MealyMachine machine = TestMachines.randomMealy(random, statesCount, 1 + test % 5, 1 + test % 3,
+                    (test % 4 == 0) ? 0 : 0.02);
+            CompiledMachine compiledMachine = machine.getCompiledMachine();
+            if (compiledMachine.hasPackedTable()) {
+                packedMachines++;
+            }
+            if (compiledMachine.getStride() > 1) {
+                stridedMachines++;
+            }
+
+            for (int sequence = 0; sequence < 10; sequence++) {
+                int[] inputs = randomInputs(random, compiledMachine, random.nextInt(200), test % 3 == 0);
+                int state = random.nextInt(compiledMachine.getStatesCount());
+                int from = random.nextInt(inputs.length + 1);
+                checkRunPaths(compiledMachine, state, inputs, from, inputs.length);
+            }
+        }
+
+        assertTrue(stridedMachines > 0);
+        assertTrue(packedMachines > 0);
+    }
+
+    @Test
+    void runStopsAtUndefinedTransitionAndUnknownInput() {
+        MealyMachine machine = TestMachines.mealy(
+                List.of("a", "b"),
+                List.of("x1", "x2", "x3"),
+                "a",
+                List.of(List.of("b", "a"),
+                        List.of("a", "-"),
+                        List.of("a", "b")),
+                List.of(List.of("y1", "y2"),
+                        List.of("y2", "y1"),
+                        List.of("y1", "y1")));
+        CompiledMachine compiledMachine = machine.getCompiledMachine();
+
+        int[] undefined = {0, 2, 2, 2, 2, 1, 0, 0};
+        checkRunPaths(compiledMachine, 0, undefined, 0, undefined.length);
+        assertEquals(5, CompiledMachine.stopIndex(compiledMachine.run(0, undefined, 0, undefined.length, null, null)));
+        assertEquals(1, CompiledMachine.stopState(compiledMachine.run(0, undefined, 0, undefined.length, null, null)));
+
+        int[] unknown = {0, 0, 0, 0, 0, 3, 0, 0};
+        checkRunPaths(compiledMachine, 0, unknown, 0, unknown.length);
+        assertEquals(5, CompiledMachine.stopIndex(compiledMachine.run(0, unknown, 0, unknown.length, null, null)));
+
+        int[] negative = {2, 2, 2, 2, 2, 2, Alphabet.UNKNOWN, 0};
+        checkRunPaths(compiledMachine, 0, negative, 0, negative.length);
+        assertEquals(6, CompiledMachine.stopIndex(compiledMachine.run(0, negative, 0, negative.length, null, null)));
+    }
+
+    /**
+     * Все пути прогона дают один и тот же индекс остановки, состояние и
+     * выходы обработанных тактов; {@code run} с записью состояний и без нее
+     * тоже совпадают.
+     */
+    private static void checkRunPaths(CompiledMachine compiledMachine, int state, int[] inputs, int from, int to) {
+        int[] expectedStates = new int[inputs.length];
+        int[] expectedOutputs = new int[inputs.length];
+        long expected = compiledMachine.runPlain(state, inputs, from, to, expectedStates, expectedOutputs);
+        int processed = CompiledMachine.stopIndex(expected);
+
+        if (compiledMachine.hasPackedTable()) {
+            int[] packedStates = new int[inputs.length];
+            int[] packedOutputs = new int[inputs.length];
+            assertEquals(expected, compiledMachine.runPacked(state, inputs, from, to, packedStates, packedOutputs));
+            assertArrayEquals(slice(expectedStates, from, processed), slice(packedStates, from, processed));
+            assertArrayEquals(slice(expectedOutputs, from, processed), slice(packedOutputs, from, processed));
+        }
+
+        if (compiledMachine.getStride() > 1) {
+            int[] stridedOutputs = new int[inputs.length];
+            assertEquals(expected, compiledMachine.runStrided(state, inputs, from, to, stridedOutputs));
+            assertArrayEquals(slice(expectedOutputs, from, processed), slice(stridedOutputs, from, processed));
+        }
+
+        int[] runOutputs = new int[inputs.length];
+        assertEquals(expected, compiledMachine.run(state, inputs, from, to, null, runOutputs));
+        assertArrayEquals(slice(expectedOutputs, from, processed), slice(runOutputs, from, processed));
+
+        int[] runStates = new int[inputs.length];
+        assertEquals(expected, compiledMachine.run(state, inputs, from, to, runStates, null));
+        assertArrayEquals(slice(expectedStates, from, processed), slice(runStates, from, processed));
+    }
+
+    /**
+     * Случайные входы; при {@code withUnknown} изредка встречаются номера вне
+     * алфавита (отрицательные и не меньше числа входов).
+     */
+    private static int[] randomInputs(Random random, CompiledMachine compiledMachine, int length,
+                                      boolean withUnknown) {
+        int[] inputs = new int[length];
+        for (int index = 0; index < length; index++) {
+            if (withUnknown && random.nextInt(50) == 0) {
+                inputs[index] = random.nextBoolean() ? Alphabet.UNKNOWN
+                        : compiledMachine.getInputsCount() + random.nextInt(2);
+            } else {
+                inputs[index] = random.nextInt(compiledMachine.getInputsCount());
+            }
+        }
+
+        return inputs;
+    }
+
+    private static int[] slice(int[] items, int from, int to) {
+        return Arrays.copyOfRange(items, from, to);
+    }
+}
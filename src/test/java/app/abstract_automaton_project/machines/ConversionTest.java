@@ -0,0 +1,147 @@
+package app.abstract_automaton_project.machines;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки преобразований со сдвигом на такт: выход состояния автомата Мура
+ * после такта t равен выходу автомата Мили на такте t, а выход автомата Мили,
+ * полученного из автомата Мура, на такте t равен выходу состояния Мура перед
+ * этим тактом.
+ */
+class ConversionTest {
+
+    private static final int MAX_WORD_LENGTH = 5;
+
+    @Test
+    void mealyToMooreKeepsOutputsShiftedByOneTact() {
+        Random random = new Random(24);
+        for (int test = 0; test < 100; test++) {
+            MealyMachine mealy = TestMachines.randomMealy(random, 1 + random.nextInt(6), 1 + random.nextInt(3),
+                    1 + random.nextInt(3), (test % 3 == 0) ? 0.2 : 0);
+            MoorMachine moore = mealy.toMoore();
+
+            for (List<String> word: words(mealy.getTransitions(), random)) {
+                List<Integer> mealyStates = trace(mealy.getCompiledMachine(), word);
+                List<Integer> mooreStates = trace(moore.getCompiledMachine(), word);
+                assertEquals(mealyStates.size(), mooreStates.size(), word.toString());
+
+                for (int tact = 1; tact < mealyStates.size(); tact++) {
+                    assertEquals(mealyOutput(mealy, mealyStates.get(tact - 1), word.get(tact - 1)),
+                            mooreOutput(moore, mooreStates.get(tact)), word + " такт " + tact);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mooreToMealyKeepsOutputs() {
+        Random random = new Random(42);
+        for (int test = 0; test < 100; test++) {
+            MoorMachine moore = TestMachines.randomMoore(random, 1 + random.nextInt(6), 1 + random.nextInt(3),
+                    1 + random.nextInt(3), (test % 3 == 0) ? 0.2 : 0);
+            MealyMachine mealy = moore.toMealy();
+
+            for (List<String> word: words(moore.getTransitions(), random)) {
+                List<Integer> mooreStates = trace(moore.getCompiledMachine(), word);
+                List<Integer> mealyStates = trace(mealy.getCompiledMachine(), word);
+                assertEquals(mooreStates.size(), mealyStates.size(), word.toString());
+
+                for (int tact = 1; tact < mooreStates.size(); tact++) {
+                    assertEquals(mooreOutput(moore, mooreStates.get(tact - 1)),
+                            mealyOutput(mealy, mealyStates.get(tact - 1), word.get(tact - 1)),
+                            word + " такт " + tact);
+                }
+            }
+        }
+    }
+
+    /**
+     * Начальная пара совпадает с парой, в которую автомат возвращается в
+     * начальное состояние, поэтому лишнего состояния не появляется.
+     */
+    @Test
+    void startStateReusesIncomingOutput() {
+        MealyMachine mealy = TestMachines.mealy(List.of("a", "b"), List.of("x1"), "a",
+                List.of(List.of("b", "a")), List.of(List.of("y1", "y2")));
+
+        MoorMachine moore = mealy.toMoore();
+
+        assertEquals(2, moore.getConditions().size());
+        assertEquals("y2", mooreOutput(moore, moore.getCompiledMachine().getStartState()));
+    }
+
+    @Test
+    void undefinedOutputOnDefinedTransitionIsRejected() {
+        MealyMachine mealy = TestMachines.mealy(List.of("a", "b"), List.of("x1"), "a",
+                List.of(List.of("b", "a")), List.of(List.of("y1", "-")));
+
+        assertThrows(WrongMachineParams.class, mealy::toMoore);
+    }
+
+    /**
+     * Все слова длины до {@link #MAX_WORD_LENGTH} и несколько длинных
+     * случайных слов.
+     */
+    private static List<List<String>> words(List<String> inputs, Random random) {
+        List<List<String>> words = new ArrayList<>();
+        words.add(List.of());
+        for (int index = 0; index < words.size(); index++) {
+            List<String> word = words.get(index);
+            if (word.size() == MAX_WORD_LENGTH) {
+                continue;
+            }
+            for (String input: inputs) {
+                List<String> extended = new ArrayList<>(word);
+                extended.add(input);
+                words.add(extended);
+            }
+        }
+
+        for (int count = 0; count < 20; count++) {
+            List<String> word = new ArrayList<>();
+            for (int tact = 0; tact < 200; tact++) {
+                word.add(inputs.get(random.nextInt(inputs.size())));
+            }
+            words.add(word);
+        }
+
+        return words;
+    }
+
+    /**
+     * Состояния до первого незаданного перехода, начиная с начального.
+     */
+    private static List<Integer> trace(CompiledMachine compiledMachine, List<String> word) {
+        List<Integer> states = new ArrayList<>();
+        int state = compiledMachine.getStartState();
+        states.add(state);
+
+        for (String symbol: word) {
+            state = compiledMachine.getNextState(state, compiledMachine.getTransitions().getId(symbol));
+            if (state == CompiledMachine.UNDEFINED) {
+                break;
+            }
+            states.add(state);
+        }
+
+        return states;
+    }
+
+    private static String mealyOutput(MealyMachine machine, int state, String input) {
+        CompiledMachine compiledMachine = machine.getCompiledMachine();
+        return compiledMachine.getResults().getSymbol(
+                compiledMachine.getOutput(state, compiledMachine.getTransitions().getId(input)));
+    }
+
+    private static String mooreOutput(MoorMachine machine, int state) {
+        String condition = machine.getCompiledMachine().getConditions().getSymbol(state);
+        return machine.getResults().get(machine.getConditions().indexOf(condition));
+    }
+}
@@ -0,0 +1,181 @@
+package app.abstract_automaton_project.machines;
+
+import app.abstract_automaton_project.processes.MachineProcessInterface;
+import app.abstract_automaton_project.processes.MealyProcess;
+import app.abstract_automaton_project.processes.MoorProcess;
+import app.abstract_automaton_project.processes.RunResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquivalenceTest {
+
+    private static final int MAX_BRUTE_FORCE_LENGTH = 7;
+
+    @Test
+    void mooreStartOutputsDifferOnFirstTact() {
+        MoorMachine first = TestMachines.moore(List.of("a", "b"), List.of("x1"), "a",
+                List.of(List.of("b", "a")), List.of("y1", "y2"));
+        MoorMachine second = TestMachines.moore(List.of("a", "b"), List.of("x1"), "a",
+                List.of(List.of("b", "a")), List.of("y2", "y2"));
+
+        EquivalenceResult result = first.checkEquivalence(second);
+
+        assertFalse(result.equivalent());
+        assertEquals(List.of("x1"), result.counterexample());
+        assertDistinguishes(new MoorProcess(first), new MoorProcess(second), result.counterexample());
+    }
+
+    @Test
+    void mooreDeadEndOutputsAreIgnored() {
+        MoorMachine first = TestMachines.moore(List.of("a", "b"), List.of("x1"), "a",
+                List.of(List.of("b", "-")), List.of("y1", "y2"));
+        MoorMachine second = TestMachines.moore(List.of("a", "b"), List.of("x1"), "a",
+                List.of(List.of("b", "-")), List.of("y1", "y3"));
+
+        assertTrue(first.checkEquivalence(second).equivalent());
+    }
+
+    @Test
+    void missingInputStopsProcess() {
+        MealyMachine first = TestMachines.mealy(List.of("a"), List.of("x1"), "a",
+                List.of(List.of("a")), List.of(List.of("y1")));
+        MealyMachine second = TestMachines.mealy(List.of("a"), List.of("x1", "x2"), "a",
+                List.of(List.of("a"), List.of("a")), List.of(List.of("y1"), List.of("y1")));
+
+        EquivalenceResult result = first.checkEquivalence(second);
+
+        assertFalse(result.equivalent());
+        assertEquals(List.of("x2"), result.counterexample());
+        assertDistinguishes(new MealyProcess(first), new MealyProcess(second), result.counterexample());
+    }
+
+    @Test
+    void randomMealyCounterexamplesAreShortest() {
+        Random random = new Random(23);
+        for (int test = 0; test < 300; test++) {
+            MealyMachine first = TestMachines.randomMealy(random, 1 + test % 6, 1 + test % 3, 2, 0.1);
+            MealyMachine second = (test % 3 == 0)
+                    ? first.minimize().machine()
+                    : mutate(random, first);
+
+            check(first, second, new MealyProcess(first), new MealyProcess(second), random);
+        }
+    }
+
+    @Test
+    void randomMooreCounterexamplesAreShortest() {
+        Random random = new Random(32);
+        for (int test = 0; test < 300; test++) {
+            MoorMachine first = TestMachines.randomMoore(random, 1 + test % 6, 1 + test % 3, 2, 0.1);
+            MoorMachine second = (test % 3 == 0)
+                    ? first.minimize().machine()
+                    : TestMachines.randomMoore(random, 1 + test % 4, 1 + test % 3, 2, 0.1);
+
+            check(first, second, new MoorProcess(first), new MoorProcess(second), random);
+        }
+    }
+
+    private static void check(Machine first, Machine second, MachineProcessInterface firstProcess,
+                              MachineProcessInterface secondProcess, Random random) {
+        EquivalenceResult result = (first instanceof MealyMachine mealy)
+                ? mealy.checkEquivalence((MealyMachine) second)
+                : ((MoorMachine) first).checkEquivalence((MoorMachine) second);
+
+        Set<String> names = new LinkedHashSet<>(first.getTransitions());
+        names.addAll(second.getTransitions());
+        List<String> inputs = new ArrayList<>(names);
+
+        if (result.equivalent()) {
+            assertNull(result.counterexample());
+            for (int word = 0; word < 50; word++) {
+                List<String> sequence = new ArrayList<>();
+                for (int index = 0; index < 12; index++) {
+                    sequence.add(inputs.get(random.nextInt(inputs.size())));
+                }
+                assertEquals(getBehaviour(firstProcess, sequence), getBehaviour(secondProcess, sequence));
+            }
+            return;
+        }
+
+        List<String> counterexample = result.counterexample();
+        assertFalse(counterexample.isEmpty());
+        assertDistinguishes(firstProcess, secondProcess, counterexample);
+
+        if (counterexample.size() <= MAX_BRUTE_FORCE_LENGTH) {
+            assertNoShorterCounterexample(firstProcess, secondProcess, inputs, counterexample.size());
+        }
+    }
+
+    /**
+     * Перебирает все последовательности короче {@code length}.
+     */
+    private static void assertNoShorterCounterexample(MachineProcessInterface first, MachineProcessInterface second,
+                                                      List<String> inputs, int length) {
+        List<List<String>> level = List.of(List.of());
+        for (int size = 0; size < length; size++) {
+            List<List<String>> nextLevel = new ArrayList<>();
+            for (List<String> word: level) {
+                assertEquals(getBehaviour(first, word), getBehaviour(second, word),
+                        "Различающая последовательность короче найденной: " + word);
+                for (String input: inputs) {
+                    List<String> longer = new ArrayList<>(word);
+                    longer.add(input);
+                    nextLevel.add(longer);
+                }
+            }
+            level = nextLevel;
+        }
+    }
+
+    private static void assertDistinguishes(MachineProcessInterface first, MachineProcessInterface second,
+                                            List<String> counterexample) {
+        assertNotEquals(getBehaviour(first, counterexample), getBehaviour(second, counterexample));
+    }
+
+    /**
+     * Выходы, выданные процессом до остановки: их число — такт остановки.
+     */
+    private static List<String> getBehaviour(MachineProcessInterface process, List<String> inputs) {
+        process.clearProcess();
+        RunResult result = process.runAll(inputs);
+
+        List<String> outputs = new ArrayList<>();
+        for (int output: result.outputs()) {
+            outputs.add(process.getMachine().getResultsAlphabet().getSymbol(output));
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Копия автомата с одним измененным переходом или выходом.
+     */
+    private static MealyMachine mutate(Random random, MealyMachine machine) {
+        List<List<String>> conditionsMatrix = new ArrayList<>();
+        List<List<String>> resultsMatrix = new ArrayList<>();
+        for (int input = 0; input < machine.getTransitions().size(); input++) {
+            conditionsMatrix.add(new ArrayList<>(machine.getConditionsMatrix().get(input)));
+            resultsMatrix.add(new ArrayList<>(machine.getResultsMatrix().get(input)));
+        }
+
+        int input = random.nextInt(conditionsMatrix.size());
+        int state = random.nextInt(machine.getConditions().size());
+        if (random.nextBoolean()) {
+            List<String> targets = new ArrayList<>(machine.getConditions());
+            targets.add("-");
+            conditionsMatrix.get(input).set(state, targets.get(random.nextInt(targets.size())));
+        } else {
+            resultsMatrix.get(input).set(state, "y" + random.nextInt(3));
+        }
+
+        return TestMachines.mealy(machine.getConditions(), machine.getTransitions(), machine.getStartCondition(),
+                conditionsMatrix, resultsMatrix);
+    }
+}
@@ -0,0 +1,128 @@
+package app.abstract_automaton_project.machines;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinimizationTest {
+
+    /**
+     * Цикл a → b → c → d → a с выходами y1, y2, y1, y2 сводится к двум
+     * состояниям; e недостижимо.
+     */
+    @Test
+    void mealyKnownMinimalSize() {
+        MealyMachine machine = TestMachines.mealy(
+                List.of("a", "b", "c", "d", "e"),
+                List.of("x1"),
+                "a",
+                List.of(List.of("b", "c", "d", "a", "a")),
+                List.of(List.of("y1", "y2", "y1", "y2", "y3")));
+
+        MinimizedMachine<MealyMachine> minimized = machine.minimize();
+
+        assertEquals(List.of("a", "b"), minimized.machine().getConditions());
+        assertEquals(Map.of("a", "a", "b", "b", "c", "a", "d", "b"), minimized.stateMapping());
+        assertTrue(machine.checkEquivalence(minimized.machine()).equivalent());
+    }
+
+    @Test
+    void partialTransitionsAreNotMerged() {
+        MealyMachine machine = TestMachines.mealy(
+                List.of("a", "b", "c"),
+                List.of("x1", "x2"),
+                "a",
+                List.of(List.of("b", "c", "a"),
+                        List.of("a", "-", "a")),
+                List.of(List.of("y1", "y1", "y1"),
+                        List.of("y1", "y1", "y1")));
+
+        MinimizedMachine<MealyMachine> minimized = machine.minimize();
+
+        assertEquals(3, minimized.machine().getConditions().size());
+        assertTrue(machine.checkEquivalence(minimized.machine()).equivalent());
+    }
+
+    /**
+     * Выход тупикового состояния автомата Мура никогда не выдается, поэтому
+     * тупики b и c с разными выходами эквивалентны.
+     */
+    @Test
+    void mooreDeadEndsAreMerged() {
+        MoorMachine machine = TestMachines.moore(
+                List.of("a", "b", "c", "d"),
+                List.of("x1", "x2"),
+                "a",
+                List.of(List.of("b", "-", "-", "a"),
+                        List.of("c", "-", "-", "a")),
+                List.of("y1", "y2", "y3", "y4"));
+
+        MinimizedMachine<MoorMachine> minimized = machine.minimize();
+
+        assertEquals(List.of("a", "b"), minimized.machine().getConditions());
+        assertEquals("b", minimized.stateMapping().get("c"));
+        assertFalse(minimized.stateMapping().containsKey("d"));
+        assertTrue(machine.checkEquivalence(minimized.machine()).equivalent());
+    }
+
+    @Test
+    void mooreKnownMinimalSize() {
+        MoorMachine machine = TestMachines.moore(
+                List.of("a", "b", "c", "d"),
+                List.of("x1", "x2"),
+                "a",
+                List.of(List.of("b", "c", "b", "a"),
+                        List.of("a", "d", "a", "c")),
+                List.of("y1", "y2", "y1", "y2"));
+
+        MinimizedMachine<MoorMachine> minimized = machine.minimize();
+
+        assertEquals(List.of("a", "b", "d"), minimized.machine().getConditions());
+        assertEquals(List.of("y1", "y2", "y2"), minimized.machine().getResults());
+        assertEquals("a", minimized.stateMapping().get("c"));
+        assertTrue(machine.checkEquivalence(minimized.machine()).equivalent());
+    }
+
+    @Test
+    void randomMachinesMinimizeToEquivalentFixedPoint() {
+        Random random = new Random(21);
+        for (int test = 0; test < 200; test++) {
+            int statesCount = 1 + test % 25;
+            double holes = (test % 2 == 0) ? 0 : 0.15;
+
+            MealyMachine mealy = TestMachines.randomMealy(random, statesCount, 1 + test % 3, 2, holes);
+            MealyMachine minimalMealy = mealy.minimize().machine();
+            assertTrue(mealy.checkEquivalence(minimalMealy).equivalent());
+            assertTrue(minimalMealy.getConditions().size() <= mealy.analyzeStructure().getReachableCount());
+            assertEquals(minimalMealy.getConditions().size(), minimalMealy.minimize().machine().getConditions().size());
+
+            MoorMachine moore = TestMachines.randomMoore(random, statesCount, 1 + test % 3, 2, holes);
+            MoorMachine minimalMoore = moore.minimize().machine();
+            assertTrue(moore.checkEquivalence(minimalMoore).equivalent());
+            assertEquals(minimalMoore.getConditions().size(), minimalMoore.minimize().machine().getConditions().size());
+        }
+    }
+
+    @Test
+    void minimalMachinesHaveNoEquivalentStates() {
+        Random random = new Random(2);
+        for (int test = 0; test < 100; test++) {
+            MealyMachine minimal = TestMachines.randomMealy(random, 2 + test % 15, 2, 2, 0.1).minimize().machine();
+            List<String> conditions = minimal.getConditions();
+
+            for (int first = 0; first < conditions.size(); first++) {
+                for (int second = first + 1; second < conditions.size(); second++) {
+                    MealyMachine other = TestMachines.mealy(conditions, minimal.getTransitions(),
+                            conditions.get(second), minimal.getConditionsMatrix(), minimal.getResultsMatrix());
+                    MealyMachine self = TestMachines.mealy(conditions, minimal.getTransitions(),
+                            conditions.get(first), minimal.getConditionsMatrix(), minimal.getResultsMatrix());
+                    assertFalse(self.checkEquivalence(other).equivalent());
+                }
+            }
+        }
+    }
+}
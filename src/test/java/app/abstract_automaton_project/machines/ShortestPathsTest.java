@@ -0,0 +1,132 @@
+package app.abstract_automaton_project.machines;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathsTest {
+
+    /**
+     * Больше 2048 состояний: столбцы строятся по запросу и вытесняются из
+     * кэша недавно использованных.
+     */
+    private static final int LARGE_STATES_COUNT = 3000;
+
+    @Test
+    void namedQueries() {
+        MealyMachine machine = TestMachines.mealy(List.of("a", "b", "c"), List.of("x1", "x2"), "a",
+                List.of(List.of("b", "c", "-"),
+                        List.of("a", "a", "-")),
+                List.of(List.of("y1", "y1", "y1"),
+                        List.of("y2", "y2", "y2")));
+
+        assertEquals(List.of("x1", "x1"), machine.getShortestInputs("a", "c"));
+        assertEquals(List.of("x2"), machine.getShortestInputs("b", "a"));
+        assertEquals(List.of(), machine.getShortestInputs("b", "b"));
+        assertNull(machine.getShortestInputs("c", "b"));
+        assertThrows(IllegalArgumentException.class, () -> machine.getShortestInputs("a", "d"));
+    }
+
+    @Test
+    void eagerTableMatchesBreadthFirstSearch() {
+        Random random = new Random(25);
+        for (int test = 0; test < 60; test++) {
+            CompiledMachine compiledMachine = TestMachines.randomMealy(random, 1 + random.nextInt(40),
+                    1 + random.nextInt(3), 2, (test % 2 == 0) ? 0.3 : 0).getCompiledMachine();
+            ShortestPaths paths = new ShortestPaths(compiledMachine);
+            if (test % 3 == 0) {
+                ForkJoinPool pool = new ForkJoinPool(3);
+                paths.precompute(pool);
+                pool.shutdown();
+            }
+
+            for (int from = 0; from < compiledMachine.getStatesCount(); from++) {
+                int[] distances = distances(compiledMachine, from);
+                for (int to = 0; to < compiledMachine.getStatesCount(); to++) {
+                    assertPath(compiledMachine, from, to, distances[to], paths.getInputIds(from, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    void recentColumnsMatchBreadthFirstSearch() {
+        Random random = new Random(52);
+        CompiledMachine compiledMachine = TestMachines.randomMealy(random, LARGE_STATES_COUNT, 2, 2, 0.05)
+                .getCompiledMachine();
+        ShortestPaths paths = new ShortestPaths(compiledMachine);
+        paths.precompute(ForkJoinPool.commonPool());
+
+        int[] sources = random.ints(8, 0, LARGE_STATES_COUNT).toArray();
+        int[][] distances = new int[sources.length][];
+        for (int index = 0; index < sources.length; index++) {
+            distances[index] = distances(compiledMachine, sources[index]);
+        }
+
+        // Два прохода по всем целям: во втором столбцы первых целей уже вытеснены.
+        for (int pass = 0; pass < 2; pass++) {
+            for (int to = 0; to < LARGE_STATES_COUNT; to++) {
+                for (int index = 0; index < sources.length; index++) {
+                    assertPath(compiledMachine, sources[index], to, distances[index][to],
+                            paths.getInputIds(sources[index], to));
+                }
+            }
+        }
+
+        IntStream.range(0, 400).parallel().forEach(query -> {
+            int index = query % sources.length;
+            int to = (query * 7919) % LARGE_STATES_COUNT;
+            assertPath(compiledMachine, sources[index], to, distances[index][to],
+                    paths.getInputIds(sources[index], to));
+        });
+    }
+
+    private static void assertPath(CompiledMachine compiledMachine, int from, int to, int distance, int[] inputs) {
+        if (distance == -1) {
+            assertNull(inputs, from + " -> " + to);
+            return;
+        }
+
+        assertNotNull(inputs, from + " -> " + to);
+        assertEquals(distance, inputs.length, from + " -> " + to);
+
+        int state = from;
+        for (int input: inputs) {
+            state = compiledMachine.getNextState(state, input);
+        }
+        assertEquals(to, state, from + " -> " + to);
+    }
+
+    /**
+     * Длины кратчайших путей из {@code from} обходом в ширину по прямым
+     * переходам; -1 для недостижимых состояний.
+     */
+    private static int[] distances(CompiledMachine compiledMachine, int from) {
+        int[] distances = new int[compiledMachine.getStatesCount()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+
+        distances[from] = 0;
+        queue[tail++] = from;
+        while (head < tail) {
+            int state = queue[head++];
+            for (int input = 0; input < compiledMachine.getInputsCount(); input++) {
+                int next = compiledMachine.getNextState(state, input);
+                if (next != CompiledMachine.UNDEFINED && distances[next] == -1) {
+                    distances[next] = distances[state] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        return distances;
+    }
+}
@@ -0,0 +1,163 @@
+package app.abstract_automaton_project.machines;
+
+import app.abstract_automaton_project.processes.MealyProcess;
+import app.abstract_automaton_project.processes.RunResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructureAnalysisTest {
+
+    /**
+     * a ⇄ b — цикл, из b есть выход в c, где процесс остается навсегда.
+     * d — тупик, e ведет в d и a; оба недостижимы из a.
+     */
+    private static MealyMachine sample() {
+        return TestMachines.mealy(
+                List.of("a", "b", "c", "d", "e"),
+                List.of("x1", "x2"),
+                "a",
+                List.of(List.of("b", "a", "c", "-", "d"),
+                        List.of("a", "c", "-", "-", "a")),
+                List.of(List.of("y1", "y2", "y1", "y1", "y1"),
+                        List.of("y2", "y1", "y1", "y1", "y2")));
+    }
+
+    @Test
+    void reachableStates() {
+        MealyMachine machine = sample();
+        StructureReport report = machine.analyzeStructure();
+
+        assertEquals(3, report.getReachableCount());
+        assertArrayEquals(new int[] {0, 1, 2}, StructureAnalysis.getReachableStates(machine.getCompiledMachine()));
+        assertArrayEquals(new int[] {3, 4}, report.getUnreachableStates());
+        assertTrue(report.isReachable(2));
+        assertFalse(report.isReachable(4));
+    }
+
+    @Test
+    void stronglyConnectedComponents() {
+        StructureReport report = sample().analyzeStructure();
+
+        assertEquals(4, report.getComponentsCount());
+        assertEquals(report.getComponentOf(0), report.getComponentOf(1));
+        assertEquals(2, report.getComponentSize(report.getComponentOf(0)));
+        assertNotEquals(report.getComponentOf(0), report.getComponentOf(2));
+        assertNotEquals(report.getComponentOf(3), report.getComponentOf(4));
+        assertEquals(2, report.getLargestComponentSize());
+
+        assertTrue(report.getComponentOf(2) < report.getComponentOf(1));
+        assertTrue(report.getComponentOf(3) < report.getComponentOf(4));
+
+        assertFalse(report.isClosedComponent(report.getComponentOf(0)));
+        assertTrue(report.isClosedComponent(report.getComponentOf(2)));
+        assertTrue(report.isClosedComponent(report.getComponentOf(3)));
+        assertEquals(0, report.getTrapComponents().length);
+    }
+
+    @Test
+    void deadEndsSinksAndUndefinedTransitions() {
+        StructureReport report = sample().analyzeStructure();
+
+        assertArrayEquals(new int[] {3}, report.getDeadEndStates());
+        assertArrayEquals(new int[] {2}, report.getSinkStates());
+        assertEquals(1, report.getUndefinedTransitionsCount());
+        assertArrayEquals(new int[] {2 * 2 + 1}, report.getUndefinedTransitions(10));
+    }
+
+    @Test
+    void componentsMatchMutualReachability() {
+        Random random = new Random(22);
+        for (int test = 0; test < 200; test++) {
+            MealyMachine machine = TestMachines.randomMealy(random, 1 + test % 30, 1 + test % 3, 2, 0.3);
+            CompiledMachine compiledMachine = machine.getCompiledMachine();
+            StructureReport report = machine.analyzeStructure();
+            boolean[][] paths = getPaths(compiledMachine);
+
+            int statesCount = compiledMachine.getStatesCount();
+            for (int from = 0; from < statesCount; from++) {
+                assertEquals(paths[compiledMachine.getStartState()][from], report.isReachable(from));
+                for (int to = 0; to < statesCount; to++) {
+                    assertEquals(paths[from][to] && paths[to][from],
+                            report.getComponentOf(from) == report.getComponentOf(to));
+                    if (paths[from][to]) {
+                        assertTrue(report.getComponentOf(to) <= report.getComponentOf(from));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void withoutUnreachableStates() {
+        MealyMachine machine = sample();
+        MealyMachine pruned = machine.withoutUnreachableStates();
+
+        assertEquals(List.of("a", "b", "c"), pruned.getConditions());
+        assertEquals("a", pruned.getStartCondition());
+        assertEquals(0, pruned.analyzeStructure().getUnreachableStates().length);
+        assertSame(pruned, pruned.withoutUnreachableStates());
+
+        Random random = new Random(1);
+        for (int test = 0; test < 50; test++) {
+            List<String> inputs = new ArrayList<>();
+            for (int index = 0; index < 20; index++) {
+                inputs.add("x" + (1 + random.nextInt(2)));
+            }
+
+            RunResult expected = new MealyProcess(machine).runAll(inputs);
+            RunResult actual = new MealyProcess(pruned).runAll(inputs);
+            assertEquals(expected.status(), actual.status());
+            assertEquals(expected.failedIndex(), actual.failedIndex());
+            assertEquals(machine.getConditionsAlphabet().getSymbol(expected.finalState()),
+                    pruned.getConditionsAlphabet().getSymbol(actual.finalState()));
+        }
+    }
+
+    @Test
+    void withoutUnreachableStatesMoore() {
+        MoorMachine machine = TestMachines.moore(
+                List.of("a", "b", "c"),
+                List.of("x1"),
+                "a",
+                List.of(List.of("b", "a", "a")),
+                List.of("y1", "y2", "y3"));
+        MoorMachine pruned = machine.withoutUnreachableStates();
+
+        assertEquals(List.of("a", "b"), pruned.getConditions());
+        assertEquals(List.of("y1", "y2"), pruned.getResults());
+    }
+
+    /**
+     * Транзитивное замыкание отношения "есть переход" (с петлями).
+     */
+    private static boolean[][] getPaths(CompiledMachine compiledMachine) {
+        int statesCount = compiledMachine.getStatesCount();
+        boolean[][] paths = new boolean[statesCount][statesCount];
+        for (int state = 0; state < statesCount; state++) {
+            paths[state][state] = true;
+            for (int input = 0; input < compiledMachine.getInputsCount(); input++) {
+                int target = compiledMachine.getNextState(state, input);
+                if (target != CompiledMachine.UNDEFINED) {
+                    paths[state][target] = true;
+                }
+            }
+        }
+
+        for (int middle = 0; middle < statesCount; middle++) {
+            for (int from = 0; from < statesCount; from++) {
+                if (paths[from][middle]) {
+                    for (int to = 0; to < statesCount; to++) {
+                        paths[from][to] |= paths[middle][to];
+                    }
+                }
+            }
+        }
+
+        return paths;
+    }
+}
@@ -0,0 +1,97 @@
+package app.abstract_automaton_project.machines;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Построение автоматов для тестов. Матрицы задаются как в редакторе: строка
+ * на каждый вход, столбец на каждое состояние.
+ */
+public final class TestMachines {
+
+    private TestMachines() {
+    }
+
+    public static MealyMachine mealy(List<String> conditions, List<String> transitions, String startCondition,
+                              List<List<String>> conditionsMatrix, List<List<String>> resultsMatrix) {
+        MealyMachine machine = new MealyMachine();
+        machine.setParams(copy(conditionsMatrix), copy(resultsMatrix), new ArrayList<>(conditions),
+                new ArrayList<>(transitions), startCondition);
+
+        return machine;
+    }
+
+    public static MoorMachine moore(List<String> conditions, List<String> transitions, String startCondition,
+                             List<List<String>> conditionsMatrix, List<String> results) {
+        MoorMachine machine = new MoorMachine();
+        machine.setParams(copy(conditionsMatrix), new ArrayList<>(results), new ArrayList<>(conditions),
+                new ArrayList<>(transitions), startCondition);
+
+        return machine;
+    }
+
+    /**
+     * Случайный автомат Мили: каждый переход с вероятностью {@code holes} не
+     * задан, иначе ведет в случайное состояние.
+     */
+    public static MealyMachine randomMealy(Random random, int statesCount, int inputsCount, int outputsCount,
+                                    double holes) {
+        List<String> conditions = names("s", statesCount);
+        List<List<String>> conditionsMatrix = new ArrayList<>();
+        List<List<String>> resultsMatrix = new ArrayList<>();
+
+        for (int input = 0; input < inputsCount; input++) {
+            List<String> conditionsRow = new ArrayList<>();
+            List<String> resultsRow = new ArrayList<>();
+            for (int state = 0; state < statesCount; state++) {
+                conditionsRow.add((random.nextDouble() < holes) ? "-" : conditions.get(random.nextInt(statesCount)));
+                resultsRow.add("y" + random.nextInt(outputsCount));
+            }
+
+            conditionsMatrix.add(conditionsRow);
+            resultsMatrix.add(resultsRow);
+        }
+
+        return mealy(conditions, names("x", inputsCount), conditions.get(0), conditionsMatrix, resultsMatrix);
+    }
+
+    public static MoorMachine randomMoore(Random random, int statesCount, int inputsCount, int outputsCount,
+                                   double holes) {
+        List<String> conditions = names("s", statesCount);
+        List<List<String>> conditionsMatrix = new ArrayList<>();
+        List<String> results = new ArrayList<>();
+
+        for (int input = 0; input < inputsCount; input++) {
+            List<String> conditionsRow = new ArrayList<>();
+            for (int state = 0; state < statesCount; state++) {
+                conditionsRow.add((random.nextDouble() < holes) ? "-" : conditions.get(random.nextInt(statesCount)));
+            }
+
+            conditionsMatrix.add(conditionsRow);
+        }
+        for (int state = 0; state < statesCount; state++) {
+            results.add("y" + random.nextInt(outputsCount));
+        }
+
+        return moore(conditions, names("x", inputsCount), conditions.get(0), conditionsMatrix, results);
+    }
+
+    public static List<String> names(String prefix, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            names.add(prefix + index);
+        }
+
+        return names;
+    }
+
+    private static List<List<String>> copy(List<List<String>> matrix) {
+        List<List<String>> copy = new ArrayList<>();
+        for (List<String> row: matrix) {
+            copy.add(new ArrayList<>(row));
+        }
+
+        return copy;
+    }
+}
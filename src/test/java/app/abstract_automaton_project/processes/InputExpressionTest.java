@@ -0,0 +1,193 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.Alphabet;
+import app.abstract_automaton_project.machines.CompiledMachine;
+import app.abstract_automaton_project.machines.MealyMachine;
+import app.abstract_automaton_project.machines.TestMachines;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputExpressionTest {
+
+    private static final Alphabet INPUTS = new Alphabet(List.of("x0", "x1", "x2"));
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "x0",
+            "x0,x1,x2",
+            "x0^5",
+            "(x0,x1)^3,x2",
+            "x2,(x0,(x1,x2^2)^3)^4,x1",
+            "x0,(x1)^0,x2",
+            "(x0,x1)^0",
+            "x0,()^7,x1^0,(x2,x0^0)^2",
+            "((x0^2,x1)^2,x2)^3");
+
+    @Test
+    void parsesSequencesGroupsAndPowers() {
+        InputExpression expression = InputExpression.parse(" (x0, x1)^3 ,x2 ");
+
+        assertEquals(7, expression.length());
+        assertEquals(List.of("x0", "x1", "x0", "x1", "x0", "x1", "x2"), symbols(expression));
+        assertEquals(" (x0, x1)^3 ,x2 ", expression.toString());
+
+        assertEquals(2_000_001, InputExpression.parse("(x0,x1)^1000000,x2^1").length());
+        assertEquals("x2", InputExpression.parse("(x0,x1)^1000000,x2^1").symbolAt(2_000_000));
+    }
+
+    @Test
+    void recognisesCompressedText() {
+        assertTrue(InputExpression.isCompressed("(x0,x1)"));
+        assertTrue(InputExpression.isCompressed("x0^2"));
+        assertFalse(InputExpression.isCompressed("x0,x1,x2"));
+        assertFalse(InputExpression.isCompressed("x0"));
+    }
+
+    @Test
+    void rejectsMalformedText() {
+        for (String text: List.of("(x0,x1", "x0)", "x0^", "x0^y", "x0,,x1", "^2", "x0;x1",
+                "(x0,x1)^99999999999999999999", "(x0^4611686018427387904)^4")) {
+            assertThrows(WrongMachineParams.class, () -> InputExpression.parse(text), text);
+        }
+    }
+
+    /**
+     * Нулевая степень убирает фрагмент целиком, в том числе неизвестные
+     * сигналы внутри него.
+     */
+    @Test
+    void zeroPowerIsEmpty() {
+        InputExpression expression = InputExpression.parse("x0,(x1,x9)^0,x2");
+        assertEquals(2, expression.length());
+        assertEquals(List.of("x0", "x2"), symbols(expression));
+        assertArrayEquals(new int[] {0, 2}, expression.expand(INPUTS, 0, 2));
+        assertEquals("x2", expression.suffix(1));
+
+        InputExpression empty = InputExpression.parse("(x0,x1)^0");
+        assertEquals(0, empty.length());
+        assertEquals("", empty.suffix(0));
+        assertArrayEquals(new int[0], empty.expand(INPUTS, 0, 0));
+
+        CompiledMachine compiledMachine = sample().getCompiledMachine();
+        ExpressionResult result = empty.evaluate(compiledMachine, 1, true);
+        assertTrue(result.isCompleted());
+        assertEquals(1, result.finalState());
+        assertEquals(0, result.processedCount());
+        assertEquals(CompiledMachine.UNDEFINED, result.lastInput());
+    }
+
+    @Test
+    void expandsAnyRange() {
+        for (String text: EXPRESSIONS) {
+            InputExpression expression = InputExpression.parse(text);
+            int[] all = ids(symbols(expression));
+            assertArrayEquals(all, expression.expand(INPUTS, 0, expression.length()), text);
+
+            for (int from = 0; from <= all.length; from++) {
+                for (int to = from; to <= all.length; to++) {
+                    assertArrayEquals(Arrays.copyOfRange(all, from, to), expression.expand(INPUTS, from, to),
+                            text + " [" + from + ", " + to + ")");
+                }
+            }
+        }
+
+        assertArrayEquals(new int[] {0, Alphabet.UNKNOWN, 0},
+                InputExpression.parse("(x0,x9)^2").expand(INPUTS, 0, 3));
+    }
+
+    /**
+     * Хвост записи снова разбирается и дает те же сигналы, что и исходная
+     * запись с той же позиции.
+     */
+    @Test
+    void suffixKeepsRemainingSignals() {
+        assertEquals("x1,x0,x1,x2", InputExpression.parse("(x0,x1)^3,x2").suffix(3));
+        assertEquals("x1,(x0,x1)^999999,x2", InputExpression.parse("(x0,x1)^1000000,x2").suffix(1));
+        assertEquals("x0,x0^2", InputExpression.parse("x0^5").suffix(2));
+
+        for (String text: EXPRESSIONS) {
+            InputExpression expression = InputExpression.parse(text);
+            List<String> all = symbols(expression);
+
+            for (int from = 0; from < all.size(); from++) {
+                String suffix = expression.suffix(from);
+                assertEquals(all.subList(from, all.size()), symbols(InputExpression.parse(suffix)),
+                        text + " -> " + suffix);
+            }
+            assertEquals("", expression.suffix(all.size()));
+        }
+    }
+
+    @Test
+    void evaluatesLikeStepByStep() {
+        Random random = new Random(5);
+        for (int test = 0; test < 200; test++) {
+            CompiledMachine compiledMachine = TestMachines.randomMealy(random, 1 + random.nextInt(8), 3, 3,
+                    (test % 2 == 0) ? 0 : 0.05).getCompiledMachine();
+            String text = "(x0,x1^" + random.nextInt(5) + ")^" + random.nextInt(30) + ",x2,((x1,x0)^"
+                    + random.nextInt(4) + ",x2)^" + random.nextInt(20) + ((test % 7 == 0) ? ",x9,x0" : "");
+            InputExpression expression = InputExpression.parse(text);
+            int startState = random.nextInt(compiledMachine.getStatesCount());
+
+            ExpressionResult result = expression.evaluate(compiledMachine, startState, true);
+
+            int state = startState;
+            long[] outputCounts = new long[compiledMachine.getOutputsCount()];
+            long failedTact = -1;
+            int[] inputs = expression.expand(compiledMachine.getTransitions(), 0, expression.length());
+            for (int tact = 0; tact < inputs.length; tact++) {
+                int input = inputs[tact];
+                if (input == Alphabet.UNKNOWN
+                        || compiledMachine.getNextState(state, input) == CompiledMachine.UNDEFINED) {
+                    failedTact = tact;
+                    break;
+                }
+                outputCounts[compiledMachine.getOutput(state, input)]++;
+                state = compiledMachine.getNextState(state, input);
+            }
+
+            assertEquals(failedTact, result.failedTact(), text);
+            assertEquals((failedTact == -1) ? expression.length() : failedTact, result.processedCount(), text);
+            assertEquals(state, result.finalState(), text);
+            assertArrayEquals(outputCounts, result.outputCounts(), text);
+            if (failedTact == -1) {
+                assertEquals(RunStatus.COMPLETED, result.status(), text);
+            } else {
+                assertEquals((inputs[(int) failedTact] == Alphabet.UNKNOWN)
+                        ? RunStatus.UNKNOWN_INPUT : RunStatus.UNDEFINED_TRANSITION, result.status(), text);
+            }
+        }
+    }
+
+    private static MealyMachine sample() {
+        return TestMachines.mealy(
+                List.of("a", "b"),
+                List.of("x0", "x1"),
+                "a",
+                List.of(List.of("b", "a"),
+                        List.of("a", "b")),
+                List.of(List.of("y1", "y2"),
+                        List.of("y2", "y1")));
+    }
+
+    private static List<String> symbols(InputExpression expression) {
+        List<String> symbols = new ArrayList<>();
+        for (long offset = 0; offset < expression.length(); offset++) {
+            symbols.add(expression.symbolAt(offset));
+        }
+
+        return symbols;
+    }
+
+    private static int[] ids(List<String> symbols) {
+        return symbols.stream()
+                .mapToInt(INPUTS::getId)
+                .toArray();
+    }
+}
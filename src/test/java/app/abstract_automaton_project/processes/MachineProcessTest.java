@@ -0,0 +1,66 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.MealyMachine;
+import app.abstract_automaton_project.machines.TestMachines;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MachineProcessTest {
+
+    /**
+     * Из b по x2 перехода нет.
+     */
+    private static MealyMachine sample() {
+        return TestMachines.mealy(
+                List.of("a", "b"),
+                List.of("x1", "x2"),
+                "a",
+                List.of(List.of("b", "a"),
+                        List.of("a", "-")),
+                List.of(List.of("y1", "y2"),
+                        List.of("y2", "y1")));
+    }
+
+    @Test
+    void bulkRunsSetLastErrorMessage() {
+        MachineProcessInterface process = new MealyProcess(sample());
+        ProcessStatistics statistics = process.enableStatistics();
+
+        RunResult unknown = process.runAll(List.of("x1", "x1", "x7", "x1"));
+        assertEquals(RunStatus.UNKNOWN_INPUT, unknown.status());
+        assertTrue(process.getLastErrorMessage().contains("x7"));
+
+        process.runAll(List.of("x1"));
+        assertNull(process.getLastErrorMessage());
+
+        RunResult undefined = process.runUntil(List.of("x2", "x2"), new Breakpoints(process.getMachine().getCompiledMachine()));
+        assertEquals(RunStatus.UNDEFINED_TRANSITION, undefined.status());
+        assertTrue(process.getLastErrorMessage().contains("\"b\" + \"x2\""));
+
+        assertEquals(2, statistics.getErrors());
+    }
+
+    @Test
+    void expressionAndRepeatedRunsSetLastErrorMessage() {
+        for (HistoryPolicy policy: List.of(HistoryPolicy.none(), HistoryPolicy.last(2), HistoryPolicy.full())) {
+            MachineProcessInterface process = new MealyProcess(sample(), policy);
+            ProcessStatistics statistics = process.enableStatistics();
+
+            ExpressionResult result = process.runExpression(InputExpression.parse("(x1,x1)^10,x1,x9,x1"));
+            assertEquals(RunStatus.UNKNOWN_INPUT, result.status());
+            assertTrue(process.getLastErrorMessage().contains("x9"));
+
+            process.runExpression(InputExpression.parse("(x1,x1)^3"));
+            assertNull(process.getLastErrorMessage());
+
+            PeriodicResult repeated = process.runRepeated(new int[] {0, 1, 1}, 10);
+            assertEquals(RunStatus.UNDEFINED_TRANSITION, repeated.getStatus());
+            assertTrue(process.getLastErrorMessage().contains("\"b\" + \"x2\""));
+
+            assertEquals(2, statistics.getErrors());
+        }
+    }
+}
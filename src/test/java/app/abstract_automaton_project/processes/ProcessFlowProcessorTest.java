@@ -0,0 +1,232 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.exceptions.WrongMachineParams;
+import app.abstract_automaton_project.machines.MealyMachine;
+import app.abstract_automaton_project.machines.TestMachines;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessFlowProcessorTest {
+
+    private static MealyMachine sample() {
+        return TestMachines.mealy(
+                List.of("a", "b"),
+                List.of("x1", "x2"),
+                "a",
+                List.of(List.of("b", "a"),
+                        List.of("a", "b")),
+                List.of(List.of("y1", "y2"),
+                        List.of("y3", "y4")));
+    }
+
+    @Test
+    void deliversStepOutputsOnDemand() {
+        MachineProcessInterface process = new MealyProcess(sample());
+        ProcessFlowProcessor<String> processor = ProcessFlowProcessor.ofSymbols(process, 4);
+        Source source = new Source();
+        Sink<String> sink = new Sink<>();
+
+        processor.subscribe(sink);
+        processor.onSubscribe(source);
+        assertEquals(4, source.requested);
+
+        source.emit(processor, "x1", "x2", "x2", "x1");
+        assertEquals(List.of(), sink.items);
+        assertEquals(5, process.getTactNumber());
+
+        sink.subscription.request(1);
+        assertEquals(List.of("y1"), sink.items);
+
+        sink.subscription.request(5);
+        assertEquals(List.of("y1", "y4", "y4", "y2"), sink.items);
+
+        source.emit(processor, "x1");
+        assertEquals(List.of("y1", "y4", "y4", "y2", "y1"), sink.items);
+
+        processor.onComplete();
+        assertTrue(sink.completed);
+        assertNull(sink.error);
+    }
+
+    /**
+     * Без запроса подписчика источник получает запросы только под свободное
+     * место буфера.
+     */
+    @Test
+    void slowSubscriberHoldsBackSource() {
+        MachineProcessInterface process = new MealyProcess(sample());
+        ProcessFlowProcessor<Integer> processor = ProcessFlowProcessor.ofIds(process, 8);
+        Source source = new Source();
+        Sink<Integer> sink = new Sink<>();
+
+        processor.subscribe(sink);
+        processor.onSubscribe(source);
+        assertEquals(8, source.requested);
+
+        for (int index = 0; index < 8; index++) {
+            source.emit(processor, 0);
+        }
+        assertEquals(8, source.requested);
+        assertEquals(8, source.emitted);
+
+        sink.subscription.request(3);
+        assertEquals(3, sink.items.size());
+        assertEquals(8, source.requested);
+
+        sink.subscription.request(1);
+        assertEquals(4, sink.items.size());
+        assertEquals(12, source.requested);
+
+        int y1 = process.getMachine().getResultsAlphabet().getId("y1");
+        int y2 = process.getMachine().getResultsAlphabet().getId("y2");
+        assertEquals(List.of(y1, y2, y1, y2), sink.items);
+    }
+
+    @Test
+    void stepErrorFailsStreamAfterBufferedOutputs() {
+        MachineProcessInterface process = new MealyProcess(sample());
+        ProcessFlowProcessor<String> processor = ProcessFlowProcessor.ofSymbols(process, 4);
+        Source source = new Source();
+        Sink<String> sink = new Sink<>();
+
+        processor.subscribe(sink);
+        processor.onSubscribe(source);
+        source.emit(processor, "x1", "x7", "x1");
+
+        assertTrue(source.cancelled);
+        assertEquals(2, process.getTactNumber());
+        assertNull(sink.error);
+
+        sink.subscription.request(10);
+        assertEquals(List.of("y1"), sink.items);
+        assertInstanceOf(WrongMachineParams.class, sink.error);
+        assertTrue(sink.error.getMessage().contains("x7"));
+        assertFalse(sink.completed);
+    }
+
+    @Test
+    void cancelStopsSteps() {
+        MachineProcessInterface process = new MealyProcess(sample());
+        ProcessFlowProcessor<String> processor = ProcessFlowProcessor.ofSymbols(process, 4);
+        Source source = new Source();
+        Sink<String> sink = new Sink<>();
+
+        processor.subscribe(sink);
+        processor.onSubscribe(source);
+        sink.subscription.request(10);
+        source.emit(processor, "x1", "x2");
+        assertEquals(List.of("y1", "y4"), sink.items);
+
+        sink.subscription.cancel();
+        assertTrue(source.cancelled);
+
+        processor.onNext("x1");
+        processor.onComplete();
+        assertEquals(3, process.getTactNumber());
+        assertEquals(List.of("y1", "y4"), sink.items);
+        assertFalse(sink.completed);
+
+        Source late = new Source();
+        processor.onSubscribe(late);
+        assertTrue(late.cancelled);
+    }
+
+    @Test
+    void nonPositiveRequestFailsStream() {
+        ProcessFlowProcessor<String> processor = ProcessFlowProcessor.ofSymbols(new MealyProcess(sample()), 4);
+        Source source = new Source();
+        Sink<String> sink = new Sink<>();
+
+        processor.subscribe(sink);
+        processor.onSubscribe(source);
+        sink.subscription.request(0);
+
+        assertTrue(source.cancelled);
+        assertInstanceOf(IllegalArgumentException.class, sink.error);
+    }
+
+    @Test
+    void acceptsSingleSubscriber() {
+        ProcessFlowProcessor<String> processor = ProcessFlowProcessor.ofSymbols(new MealyProcess(sample()));
+        Sink<String> first = new Sink<>();
+        Sink<String> second = new Sink<>();
+
+        processor.subscribe(first);
+        processor.subscribe(second);
+
+        assertNull(first.error);
+        assertNotNull(second.subscription);
+        assertInstanceOf(IllegalStateException.class, second.error);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessFlowProcessor.ofSymbols(new MealyProcess(sample()), 0));
+    }
+
+    /**
+     * Источник, который отдает входы только по вызову {@link #emit} и
+     * проверяет, что их не больше запрошенного.
+     */
+    private static final class Source implements Flow.Subscription {
+
+        long requested;
+
+        long emitted;
+
+        boolean cancelled;
+
+        @SafeVarargs
+        final <T> void emit(Flow.Subscriber<T> subscriber, T... items) {
+            for (T item: items) {
+                assertTrue(emitted < requested, "Вход сверх запроса");
+                emitted++;
+                subscriber.onNext(item);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static final class Sink<T> implements Flow.Subscriber<T> {
+
+        final List<T> items = new ArrayList<>();
+
+        Flow.Subscription subscription;
+
+        Throwable error;
+
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.CompiledMachine;
+import app.abstract_automaton_project.machines.Machine;
+import app.abstract_automaton_project.machines.MealyMachine;
+import app.abstract_automaton_project.machines.MoorMachine;
+import app.abstract_automaton_project.machines.TestMachines;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessStatisticsTest {
+
+    private static final List<HistoryPolicy> POLICIES = List.of(
+            HistoryPolicy.none(), HistoryPolicy.last(3), HistoryPolicy.everyKth(4), HistoryPolicy.full());
+
+    /**
+     * Сжатый прогон с короткой историей пропускает большую часть тактов, но
+     * статистика должна совпасть с прогоном по одному такту.
+     */
+    @Test
+    void compressedRunsCountEveryTact() {
+        Random random = new Random(17);
+        for (int test = 0; test < 100; test++) {
+            Machine machine = randomMachine(random, test);
+            String expression = "(x0,x1)^" + (1 + random.nextInt(40)) + ",x1^" + random.nextInt(30)
+                    + ",(x0,(x1,x0)^3)^" + random.nextInt(10) + ",x2,(x0)^" + random.nextInt(20);
+            List<String> symbols = expand(InputExpression.parse(expression));
+
+            ProcessStatistics expected = stepByStep(machine, symbols);
+            for (HistoryPolicy policy: POLICIES) {
+                MachineProcessInterface process = newProcess(machine, policy);
+                ProcessStatistics statistics = process.enableStatistics();
+                process.runExpression(InputExpression.parse(expression));
+
+                assertStatisticsEqual(expected, statistics);
+            }
+        }
+    }
+
+    @Test
+    void repeatedRunsCountEveryTact() {
+        Random random = new Random(71);
+        for (int test = 0; test < 100; test++) {
+            Machine machine = randomMachine(random, test);
+            int[] period = new int[1 + random.nextInt(4)];
+            for (int index = 0; index < period.length; index++) {
+                period[index] = random.nextInt(3);
+            }
+            long repetitions = random.nextInt(60);
+
+            List<String> symbols = new ArrayList<>();
+            for (long repetition = 0; repetition < repetitions; repetition++) {
+                for (int input: period) {
+                    symbols.add("x" + input);
+                }
+            }
+
+            ProcessStatistics expected = stepByStep(machine, symbols);
+            for (HistoryPolicy policy: POLICIES) {
+                MachineProcessInterface process = newProcess(machine, policy);
+                ProcessStatistics statistics = process.enableStatistics();
+                process.runRepeated(period, repetitions);
+
+                assertStatisticsEqual(expected, statistics);
+            }
+        }
+    }
+
+    /**
+     * Эталон: по одному такту до первой ошибки.
+     */
+    private static ProcessStatistics stepByStep(Machine machine, List<String> symbols) {
+        MachineProcessInterface process = newProcess(machine, HistoryPolicy.none());
+        ProcessStatistics statistics = process.enableStatistics();
+        for (String symbol: symbols) {
+            if (process.tryStep(symbol) != RunStatus.COMPLETED) {
+                break;
+            }
+        }
+
+        return statistics;
+    }
+
+    private static void assertStatisticsEqual(ProcessStatistics expected, ProcessStatistics actual) {
+        CompiledMachine compiledMachine = expected.getCompiledMachine();
+        assertEquals(expected.getSteps(), actual.getSteps());
+        assertEquals(expected.getErrors(), actual.getErrors());
+
+        for (int state = 0; state < compiledMachine.getStatesCount(); state++) {
+            assertEquals(expected.getVisits(state), actual.getVisits(state));
+            assertEquals(expected.getDwellCount(state), actual.getDwellCount(state));
+            assertEquals(expected.getMinDwell(state), actual.getMinDwell(state));
+            assertEquals(expected.getMaxDwell(state), actual.getMaxDwell(state));
+            for (int input = 0; input < compiledMachine.getInputsCount(); input++) {
+                assertEquals(expected.getTransitionCount(state, input), actual.getTransitionCount(state, input));
+            }
+        }
+        for (int output = 0; output < compiledMachine.getOutputsCount(); output++) {
+            assertEquals(expected.getOutputCount(output), actual.getOutputCount(output));
+        }
+    }
+
+    private static Machine randomMachine(Random random, int test) {
+        double holes = (test % 3 == 0) ? 0.05 : 0;
+        return (test % 2 == 0)
+                ? TestMachines.randomMealy(random, 1 + test % 7, 3, 3, holes)
+                : TestMachines.randomMoore(random, 1 + test % 7, 3, 3, holes);
+    }
+
+    private static MachineProcessInterface newProcess(Machine machine, HistoryPolicy policy) {
+        return (machine instanceof MealyMachine mealy)
+                ? new MealyProcess(mealy, policy)
+                : new MoorProcess((MoorMachine) machine, policy);
+    }
+
+    private static List<String> expand(InputExpression expression) {
+        List<String> symbols = new ArrayList<>();
+        for (long offset = 0; offset < expression.length(); offset++) {
+            symbols.add(expression.symbolAt(offset));
+        }
+
+        return symbols;
+    }
+}
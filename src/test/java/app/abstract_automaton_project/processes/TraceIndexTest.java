@@ -0,0 +1,104 @@
+package app.abstract_automaton_project.processes;
+
+import app.abstract_automaton_project.machines.Machine;
+import app.abstract_automaton_project.machines.MealyMachine;
+import app.abstract_automaton_project.machines.MoorMachine;
+import app.abstract_automaton_project.machines.TestMachines;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceIndexTest {
+
+    private static final int REPETITIONS = 1_000_000;
+
+    /**
+     * Счетчик по модулю 4: x0 переходит в следующее состояние, x1 оставляет
+     * на месте. Выход — номер нового состояния.
+     */
+    private static MealyMachine counter() {
+        return TestMachines.mealy(
+                List.of("s0", "s1", "s2", "s3"),
+                List.of("x0", "x1"),
+                "s0",
+                List.of(List.of("s1", "s2", "s3", "s0"),
+                        List.of("s0", "s1", "s2", "s3")),
+                List.of(List.of("y1", "y2", "y3", "y0"),
+                        List.of("y0", "y1", "y2", "y3")));
+    }
+
+    /**
+     * Сжатый прогон с короткой историей: такты, не попавшие в историю, все
+     * равно должны быть в индексе.
+     */
+    @Test
+    void compressedRunIsIndexedInsideSkippedRange() {
+        MachineProcessInterface process = new MealyProcess(counter(), HistoryPolicy.last(16));
+        TraceIndex index = process.enableTraceIndex();
+        process.runExpression(InputExpression.parse("(x0,x1)^" + REPETITIONS));
+
+        long lastTact = 2L * REPETITIONS;
+        assertEquals(lastTact + 1, process.getTactNumber());
+        assertEquals(16, process.getInputsHistory().size());
+
+        int s3 = index.getSymbolId(TraceIndex.Kind.STATE, "s3");
+        assertEquals(5, index.next(TraceIndex.Kind.STATE, s3, 0));
+        assertEquals(13, index.next(TraceIndex.Kind.STATE, s3, 7));
+        assertEquals(1_000_006, index.previous(TraceIndex.Kind.STATE, s3, 1_000_010));
+        assertEquals(REPETITIONS / 2, index.count(TraceIndex.Kind.STATE, s3, 0, lastTact));
+
+        int x1 = index.getSymbolId(TraceIndex.Kind.INPUT, "x1");
+        assertEquals(REPETITIONS, index.count(TraceIndex.Kind.INPUT, x1, 0, lastTact));
+        assertEquals(500_000, index.next(TraceIndex.Kind.INPUT, x1, 499_999));
+
+        int y0 = index.getSymbolId(TraceIndex.Kind.OUTPUT, "y0");
+        assertEquals(7, index.next(TraceIndex.Kind.OUTPUT, y0, 0));
+    }
+
+    @Test
+    void compressedAndRepeatedRunsMatchStepByStep() {
+        Random random = new Random(18);
+        for (int test = 0; test < 60; test++) {
+            Machine machine = (test % 2 == 0)
+                    ? TestMachines.randomMealy(random, 1 + test % 6, 2, 3, (test % 3 == 0) ? 0.05 : 0)
+                    : TestMachines.randomMoore(random, 1 + test % 6, 2, 3, (test % 3 == 0) ? 0.05 : 0);
+            String expression = "(x0,x1,x1)^" + random.nextInt(50) + ",x0^" + random.nextInt(20);
+            int[] period = {random.nextInt(2), random.nextInt(2)};
+            long repetitions = random.nextInt(40);
+
+            MachineProcessInterface expected = newProcess(machine, HistoryPolicy.full());
+            TraceIndex expectedIndex = expected.enableTraceIndex();
+            InputExpression parsed = InputExpression.parse(expression);
+            boolean completed = expected.runAll(
+                    parsed.expand(machine.getCompiledMachine().getTransitions(), 0, parsed.length())).isCompleted();
+            for (long repetition = 0; completed && repetition < repetitions; repetition++) {
+                if (!expected.runAll(period).isCompleted()) {
+                    break;
+                }
+            }
+
+            for (HistoryPolicy policy: List.of(HistoryPolicy.none(), HistoryPolicy.last(4))) {
+                MachineProcessInterface process = newProcess(machine, policy);
+                TraceIndex index = process.enableTraceIndex();
+                if (process.runExpression(parsed).isCompleted()) {
+                    process.runRepeated(period, repetitions);
+                }
+
+                for (TraceIndex.Kind kind: TraceIndex.Kind.values()) {
+                    for (int symbol = 0; symbol < index.getAlphabet(kind).size(); symbol++) {
+                        assertArrayEquals(expectedIndex.getTacts(kind, symbol), index.getTacts(kind, symbol));
+                    }
+                }
+            }
+        }
+    }
+
+    private static MachineProcessInterface newProcess(Machine machine, HistoryPolicy policy) {
+        return (machine instanceof MealyMachine mealy)
+                ? new MealyProcess(mealy, policy)
+                : new MoorProcess((MoorMachine) machine, policy);
+    }
+}